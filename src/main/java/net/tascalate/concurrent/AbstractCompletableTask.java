@@ -29,7 +29,6 @@ import static net.tascalate.concurrent.SharedFunctions.unwrapExecutionException;
 import static net.tascalate.concurrent.SharedFunctions.wrapExecutionException;
 
 import java.util.concurrent.Callable;
-import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
@@ -43,6 +42,8 @@ import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import net.tascalate.concurrent.core.ControlFlowExceptions;
+
 /**
  * Base superclass for both root and intermediate {@link Promise}-s that
  * represent blocking long-running tasks
@@ -82,7 +83,7 @@ abstract class AbstractCompletableTask<T> extends PromiseAdapterExtended<T>
     @Override
     public boolean cancel(boolean mayInterruptIfRunning) {
         if (task.cancel(mayInterruptIfRunning)) {
-            failure(new CancellationException());
+            failure(ControlFlowExceptions.cancellation());
             CompletionStage<?> s = intermediateStage;
             if (null != s) {
                 cancelPromise(s, mayInterruptIfRunning);
@@ -18,22 +18,28 @@ package net.tascalate.concurrent;
 import static net.tascalate.concurrent.SharedFunctions.cancelPromise;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 abstract class AggregatingPromise<T, R> extends CompletableFutureWrapper<List<R>> {
 
-    private final List<Throwable> errors;
+    // Stack of errors recorded, so the failure path is proportional to the number of errors
+    private final AtomicReference<RecordedError> errors = new AtomicReference<>();
     
     private final AtomicIntegerArray completions;
 
     private final AtomicInteger resultsCount = new AtomicInteger(0);
     private final AtomicInteger errorsCount = new AtomicInteger(0);
+    // Number of errors pushed to the stack, may lag behind errorsCount
+    private final AtomicInteger errorsPublished = new AtomicInteger(0);
 
     private final AtomicBoolean done = new AtomicBoolean(false);
 
@@ -109,7 +115,6 @@ abstract class AggregatingPromise<T, R> extends CompletableFutureWrapper<List<R>
         this.maxErrorsCount = maxErrorsCount < 0 ? 
             promises.size() - minResultsCount : Math.max(0, Math.min(maxErrorsCount, size - minResultsCount));
         this.cancelRemaining = cancelRemaining;
-        this.errors  = newList(size);
         this.completions = new AtomicIntegerArray(size);
     }
     
@@ -161,10 +166,16 @@ abstract class AggregatingPromise<T, R> extends CompletableFutureWrapper<List<R>
             // So if we specify that no exceptions should happen
             // we will report at least one
             if (c <= maxErrorsCount) {
-                // Only one thread may access this due to check with
-                // "completions"
-                errors.set(idx, error);
-                if (c == maxErrorsCount && done.compareAndSet(false, true)) {
+                // Only errors within the limit are recorded, so the list matches the count reported
+                RecordedError head;
+                RecordedError next;
+                do {
+                    head = errors.get();
+                    next = new RecordedError(idx, error, head);
+                } while (!errors.compareAndSet(head, next));
+                // Not the thread that counted the last error but the one that published it 
+                // fails the promise, so all maxErrorsCount + 1 errors are visible 
+                if (errorsPublished.incrementAndGet() == maxErrorsCount + 1 && done.compareAndSet(false, true)) {
                     // Synchronized around done
                     markRemainingCancelled();
                     // Now no other thread can modify errors array.
@@ -175,15 +186,7 @@ abstract class AggregatingPromise<T, R> extends CompletableFutureWrapper<List<R>
                         cancelPromises();
                     }
                     
-                    failure(new MultitargetException(
-                        String.format(
-                            c == 1 ? 
-                            "Aggregated promise was completed exceptionally (1 out of %d)"
-                            :
-                            "Aggregated promises were completed exceptionally (%2$d out of %1$d)",
-                            promises.size(), c), 
-                        errors
-                    ));
+                    failure(newMultitargetException(maxErrorsCount + 1));
                 }
             }
         }
@@ -213,10 +216,54 @@ abstract class AggregatingPromise<T, R> extends CompletableFutureWrapper<List<R>
         }
     }
 
+    private MultitargetException newMultitargetException(int failed) {
+        int size = promises.size();
+        RecordedError head = errors.get();
+        int count = 0;
+        for (RecordedError e = head; null != e; e = e.next) {
+            count++;
+        }
+        RecordedError[] recorded = new RecordedError[count];
+        int i = 0;
+        for (RecordedError e = head; null != e; e = e.next) {
+            recorded[i++] = e;
+        }
+        Arrays.sort(recorded, BY_INDEX);
+        int[] indices = new int[recorded.length];
+        Throwable[] exceptions = new Throwable[recorded.length];
+        for (i = 0; i < recorded.length; i++) {
+            indices[i] = recorded[i].index;
+            exceptions[i] = recorded[i].error;
+        }
+        return MultitargetException.sparse(
+            () -> String.format(
+                failed == 1 ? 
+                "Aggregated promise was completed exceptionally (1 out of %d)"
+                :
+                "Aggregated promises were completed exceptionally (%2$d out of %1$d)",
+                size, failed),
+            size, indices, exceptions
+        );
+    }
+    
     private static <T> List<T> newList(int length) {
         return new ArrayList<>(Collections.nCopies(length, null));
     }
 
+    private static final class RecordedError {
+        final int index;
+        final Throwable error;
+        final RecordedError next;
+        
+        RecordedError(int index, Throwable error, RecordedError next) {
+            this.index = index;
+            this.error = error;
+            this.next  = next;
+        }
+    }
+    
+    private static final Comparator<RecordedError> BY_INDEX = (a, b) -> Integer.compare(a.index, b.index);
+    
     private static final int PENDING          =  0;
     private static final int COMPLETED_RESULT =  1;
     private static final int COMPLETED_ERROR  =  2;
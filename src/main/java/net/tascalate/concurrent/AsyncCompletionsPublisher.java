@@ -0,0 +1,277 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * <p>Non-blocking counterpart of the {@link AsyncCompletions#stream(Stream, int)}: a {@link Flow.Publisher}
+ * that emits results of the {@link CompletionStage}-s in the order they are settled.
+ * <p>Promises are pulled from the source iterator only when the subscriber signals demand via
+ * {@link Flow.Subscription#request(long)}; at most <code>chunkSize</code> promises are in progress
+ * at any moment (when <code>chunkSize</code> is positive). The source is never probed without outstanding demand, 
+ * so the end of the source is detected, and {@link Flow.Subscriber#onComplete()} is signalled, only when 
+ * the subscriber requests more items than are left. The first promise completed exceptionally as well as 
+ * the error thrown by the source terminates the sequence with {@link Flow.Subscriber#onError(Throwable)}.
+ * <p>The source iterator may be traversed only once, so the publisher accepts a single subscriber.
+ * <p>This class requires Java 9 or above at runtime.
+ *
+ * @param <T>
+ *   a type of the emitted values
+ */
+public class AsyncCompletionsPublisher<T> implements Flow.Publisher<T> {
+
+    private final Iterator<? extends CompletionStage<? extends T>> pendingPromises;
+    private final Object source;
+    private final int chunkSize;
+    private final AsyncCompletions.Cancel cancelStrategy;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+    protected AsyncCompletionsPublisher(Iterator<? extends CompletionStage<? extends T>> pendingPromises,
+                                        Object source,
+                                        int chunkSize,
+                                        AsyncCompletions.Cancel cancelStrategy) {
+        this.pendingPromises = pendingPromises;
+        this.source          = source;
+        this.chunkSize       = chunkSize;
+        this.cancelStrategy  = cancelStrategy == null ? AsyncCompletions.Cancel.NONE : cancelStrategy;
+    }
+
+    public static <T> Flow.Publisher<T> from(Stream<? extends CompletionStage<? extends T>> pendingPromises,
+                                             int chunkSize) {
+        return from(pendingPromises, chunkSize, AsyncCompletions.Cancel.ENLISTED);
+    }
+
+    public static <T> Flow.Publisher<T> from(Stream<? extends CompletionStage<? extends T>> pendingPromises,
+                                             int chunkSize, AsyncCompletions.Cancel cancelOption) {
+        return new AsyncCompletionsPublisher<>(pendingPromises.iterator(), pendingPromises, chunkSize, cancelOption);
+    }
+
+    public static <T> Flow.Publisher<T> from(Iterable<? extends CompletionStage<? extends T>> pendingPromises,
+                                             int chunkSize) {
+        return from(pendingPromises, chunkSize, AsyncCompletions.Cancel.ENLISTED);
+    }
+
+    public static <T> Flow.Publisher<T> from(Iterable<? extends CompletionStage<? extends T>> pendingPromises,
+                                             int chunkSize, AsyncCompletions.Cancel cancelOption) {
+        return new AsyncCompletionsPublisher<>(pendingPromises.iterator(), null, chunkSize, cancelOption);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (subscribed.compareAndSet(false, true)) {
+            CompletionsSubscription<T> subscription =
+                new CompletionsSubscription<>(subscriber, pendingPromises, source, chunkSize, cancelStrategy);
+            subscriber.onSubscribe(subscription);
+        } else {
+            subscriber.onSubscribe(NO_OP_SUBSCRIPTION);
+            subscriber.onError(new IllegalStateException("This publisher allows only a single subscriber"));
+        }
+    }
+
+    static final class CompletionsSubscription<T> implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Iterator<? extends CompletionStage<? extends T>> pendingPromises;
+        private final Object source;
+        private final int chunkSize;
+        private final AsyncCompletions.Cancel cancelStrategy;
+
+        private final Queue<Try<T>> settledResults = new ConcurrentLinkedQueue<>();
+        private final Set<CompletionStage<?>> enlistedPromises = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        private final AtomicLong requested = new AtomicLong(0);
+        private final AtomicInteger inProgress = new AtomicInteger(0);
+        private final AtomicInteger settledCount = new AtomicInteger(0);
+        private final AtomicInteger wip = new AtomicInteger(0);
+
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        // Accessed only from within drain loop
+        private boolean exhausted;
+        private boolean terminated;
+
+        CompletionsSubscription(Flow.Subscriber<? super T> subscriber,
+                                Iterator<? extends CompletionStage<? extends T>> pendingPromises,
+                                Object source,
+                                int chunkSize,
+                                AsyncCompletions.Cancel cancelStrategy) {
+            this.subscriber      = subscriber;
+            this.pendingPromises = pendingPromises;
+            this.source          = source;
+            this.chunkSize       = chunkSize;
+            this.cancelStrategy  = cancelStrategy;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Rule 3.9, error is signalled from the drain loop to keep signals serialized
+                invalidRequest = new IllegalArgumentException("Requested number of items must be positive but was: " + n);
+            } else {
+                requested.accumulateAndGet(n, (current, delta) -> {
+                    long result = current + delta;
+                    // Saturate on overflow, Long.MAX_VALUE means unbounded demand
+                    return result < 0 ? Long.MAX_VALUE : result;
+                });
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                // Some other thread is draining, it will re-check state
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!terminated) {
+                    drainOnce();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainOnce() {
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            Throwable error = invalidRequest;
+            if (null != error) {
+                terminate();
+                subscriber.onError(error);
+                return;
+            }
+            // Emit available results
+            long r = requested.get();
+            long emitted = 0;
+            while (emitted != r) {
+                if (cancelled) {
+                    terminate();
+                    return;
+                }
+                Try<T> next = settledResults.poll();
+                if (null == next) {
+                    break;
+                }
+                settledCount.decrementAndGet();
+                if (next.isSuccess()) {
+                    subscriber.onNext(next.done());
+                    emitted++;
+                } else {
+                    terminate();
+                    subscriber.onError(SharedFunctions.unwrapCompletionException(next.error()));
+                    return;
+                }
+            }
+            if (emitted != 0 && r != Long.MAX_VALUE) {
+                r = requested.addAndGet(-emitted);
+            }
+
+            // Enlist more promises according to the outstanding demand;
+            // results settled synchronously are picked up by the next pass of the drain loop
+            try {
+                enlistPending(r);
+            } catch (Throwable ex) {
+                // Source failed, enlisted promises are cancelled according to the strategy
+                terminate();
+                subscriber.onError(ex);
+                return;
+            }
+
+            if (exhausted && inProgress.get() == 0 && settledResults.isEmpty()) {
+                terminate();
+                subscriber.onComplete();
+            }
+        }
+
+        private void enlistPending(long demand) {
+            while (!exhausted) {
+                int unprocessed = inProgress.get();
+                long buffered = (long)unprocessed + settledCount.get();
+                // The source is probed only with outstanding demand: hasNext() of the lazy source 
+                // may already create the next promise
+                if (buffered >= demand) {
+                    break;
+                }
+                if (chunkSize > 0 && unprocessed >= chunkSize) {
+                    break;
+                }
+                if (!pendingPromises.hasNext()) {
+                    exhausted = true;
+                    break;
+                }
+                CompletionStage<? extends T> nextPromise = pendingPromises.next();
+                inProgress.incrementAndGet();
+                enlistedPromises.add(nextPromise);
+                nextPromise.whenComplete((v, ex) -> {
+                    enlistedPromises.remove(nextPromise);
+                    settledResults.offer(null == ex ? Try.success(v) : Try.failure(ex));
+                    settledCount.incrementAndGet();
+                    inProgress.decrementAndGet();
+                    drain();
+                });
+            }
+        }
+
+        private void terminate() {
+            terminated = true;
+            settledResults.clear();
+            releaseResources();
+        }
+
+        private void releaseResources() {
+            cancelStrategy.apply(enlistedPromises, pendingPromises);
+            if (source instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable)source).close();
+                } catch (Exception ex) {
+                    // Nothing to report to the subscriber after termination
+                }
+            }
+        }
+    }
+
+    private static final Flow.Subscription NO_OP_SUBSCRIPTION = new Flow.Subscription() {
+        @Override
+        public void request(long n) {}
+
+        @Override
+        public void cancel() {}
+    };
+}
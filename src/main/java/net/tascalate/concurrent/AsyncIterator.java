@@ -0,0 +1,165 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * <p>Non-blocking counterpart of the {@link Iterator}: every call to {@link #next()} returns a {@link Promise}
+ * that is resolved either with the next element or with an empty {@link Optional} when the sequence is over.
+ * <p>Implementations are not required to support concurrent calls to {@link #next()}: a caller should request
+ * the next element only after the promise returned by the previous call is settled. All combinators and terminal
+ * operations of this interface obey this rule, so pagination or cursor-style remote reads may be processed
+ * end-to-end without parking threads. Null elements are not supported.
+ * <p>A failed promise returned by {@link #next()} aborts terminal operations like {@link #forEachAsync(Consumer)}
+ * and {@link #collect(Collector)}; cancelling the promise returned by a terminal operation cancels the pending
+ * {@link #next()} call.
+ *
+ * @param <T>
+ *   a type of the elements
+ */
+@FunctionalInterface
+public interface AsyncIterator<T> {
+
+    /**
+     * Requests the next element of the sequence
+     * @return
+     *   a promise resolved with the next element or with an empty {@link Optional} when there are no more elements
+     */
+    Promise<Optional<T>> next();
+
+    default <R> AsyncIterator<R> map(Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return () -> next().dependent()
+                           .thenApply(v -> v.<R>map(mapper), true);
+    }
+
+    default AsyncIterator<T> filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        // Skip non-matching elements without recursion, the loop stops on the first match or at the end
+        return () -> Promises.loop(null, v -> null == v || (v.isPresent() && !predicate.test(v.get())), v -> next());
+    }
+
+    /**
+     * Maps elements asynchronously keeping their original order. Up to <code>concurrency</code> elements are
+     * pulled from this iterator ahead and mapped concurrently while the consumer handles the current one.
+     * Calls to {@link #next()} of this iterator are still sequential.
+     * @param <R>
+     *   a type of the mapped elements
+     * @param concurrency
+     *   a maximum number of the elements being mapped concurrently, should be positive
+     * @param mapper
+     *   an asynchronous mapping function
+     * @return
+     *   the iterator over mapped elements
+     */
+    default <R> AsyncIterator<R> mapAsync(int concurrency, Function<? super T, ? extends CompletionStage<R>> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency should be positive but was: " + concurrency);
+        }
+        return new MapAsyncIterator<>(this, concurrency, mapper);
+    }
+
+    default AsyncIterator<List<T>> batch(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Batch size should be positive but was: " + size);
+        }
+        return () -> {
+            List<T> batch = new ArrayList<>(size);
+            return Promises.loop(Boolean.TRUE, Boolean::booleanValue, more -> next().dependent().thenApply(v -> {
+                       v.ifPresent(batch::add);
+                       return v.isPresent() && batch.size() < size;
+                   }, true))
+                   .dependent()
+                   .thenApply(done -> batch.isEmpty() ? Optional.<List<T>>empty() : Optional.of(batch), true);
+        };
+    }
+
+    default Promise<Void> forEachAsync(Consumer<? super T> action) {
+        Objects.requireNonNull(action, "action");
+        return Promises.loop(Boolean.TRUE, Boolean::booleanValue, more -> next().dependent().thenApply(v -> {
+                   v.ifPresent(action);
+                   return v.isPresent();
+               }, true))
+               .dependent()
+               .thenApply(SharedFunctions.nullify(), true);
+    }
+
+    default <A, R> Promise<R> collect(Collector<? super T, A, R> collector) {
+        Objects.requireNonNull(collector, "collector");
+        A container = collector.supplier().get();
+        BiConsumer<A, ? super T> accumulator = collector.accumulator();
+        return Promises.loop(Boolean.TRUE, Boolean::booleanValue, more -> next().dependent().thenApply(v -> {
+                   v.ifPresent(e -> accumulator.accept(container, e));
+                   return v.isPresent();
+               }, true))
+               .dependent()
+               .thenApply(done -> collector.finisher().apply(container), true);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> AsyncIterator<T> empty() {
+        return (AsyncIterator<T>)MapAsyncIterator.EMPTY;
+    }
+
+    static <T> AsyncIterator<T> of(Iterator<? extends T> iterator) {
+        Objects.requireNonNull(iterator, "iterator");
+        return () -> {
+            try {
+                return Promises.success(iterator.hasNext() ? Optional.<T>of(iterator.next()) : Optional.<T>empty());
+            } catch (Throwable ex) {
+                return Promises.failure(ex);
+            }
+        };
+    }
+
+    static <T> AsyncIterator<T> of(Iterable<? extends T> iterable) {
+        return of(iterable.iterator());
+    }
+
+    /**
+     * Creates an iterator over elements produced by the asynchronous supplier; the sequence is over when
+     * the supplier resolves an empty {@link Optional}, for example when a remote cursor has no more pages.
+     * @param <T>
+     *   a type of the elements
+     * @param supplier
+     *   a supplier of the next element
+     * @return
+     *   the iterator over supplied elements
+     */
+    static <T> AsyncIterator<T> generate(Supplier<? extends CompletionStage<Optional<T>>> supplier) {
+        Objects.requireNonNull(supplier, "supplier");
+        return () -> {
+            try {
+                return Promises.from(supplier.get());
+            } catch (Throwable ex) {
+                return Promises.failure(ex);
+            }
+        };
+    }
+}
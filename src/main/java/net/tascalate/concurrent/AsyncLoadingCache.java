@@ -0,0 +1,376 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>Cache of asynchronously loaded values: the cache stores promises, so concurrent misses of the same key 
+ * share a single load and no thread is blocked while the value is loading.
+ * <p>Every call to {@link #get(Object)} returns its own promise; cancelling it doesn't cancel the shared load 
+ * unless all callers waiting for the load cancel their promises. Failed (and cancelled) loads are evicted 
+ * as soon as they are completed, so the next call starts the new load.
+ * <p>The cache may be bounded by the number of entries (least recently used entries are evicted), 
+ * entries may expire after write or after access, and may be refreshed ahead of expiration: the first call 
+ * after the refresh interval starts the reload in background while callers still get the current value.
+ * 
+ * @param <K>
+ *   a type of the keys
+ * @param <V>
+ *   a type of the values
+ */
+public class AsyncLoadingCache<K, V> {
+    // Reads are recorded for LRU ordering lazily, extra reads are dropped when the buffer is full
+    private static final int READ_BUFFER_SIZE = 256;
+    // Expired entries are swept after the number of writes proportional to the cache size, but not less than this
+    private static final int MIN_WRITES_PER_SWEEP = 64;
+    
+    private final Function<? super K, ? extends CompletionStage<V>> loader;
+    private final long maximumSize;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final long refreshAfterWriteNanos;
+    private final LongSupplier nanoTime;
+    // Clock is not read at all when there is no time-based policy
+    private final boolean timed;
+    
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    
+    // LRU order, used only when the cache is bounded by size; guarded by evictionLock
+    private final LinkedHashMap<K, Entry<K, V>> order;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Queue<Entry<K, V>> readBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger readBufferSize = new AtomicInteger();
+    // Used only when entries expire
+    private final AtomicInteger writesSinceSweep = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile int writesPerSweep = MIN_WRITES_PER_SWEEP;
+    
+    protected AsyncLoadingCache(Builder builder, Function<? super K, ? extends CompletionStage<V>> loader) {
+        this.loader                 = Objects.requireNonNull(loader, "loader");
+        this.maximumSize            = builder.maximumSize;
+        this.expireAfterWriteNanos  = builder.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+        this.refreshAfterWriteNanos = builder.refreshAfterWriteNanos;
+        this.nanoTime               = builder.nanoTime;
+        this.timed                  = expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0 || refreshAfterWriteNanos > 0;
+        this.order                  = maximumSize > 0 ? new LinkedHashMap<>(16, 0.75f, true) : null;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Returns the cached value for the key or loads it
+     * @param key
+     *   the key
+     * @return
+     *   the promise resolved with the value
+     */
+    public Promise<V> get(K key) {
+        Objects.requireNonNull(key, "key");
+        while (true) {
+            long now = now();
+            Entry<K, V> entry = entries.get(key);
+            if (null != entry) {
+                if (isExpired(entry, now)) {
+                    remove(entry);
+                    continue;
+                }
+                Promise<V> result = entry.shared.fork();
+                if (null == result) {
+                    // All callers cancelled the load
+                    remove(entry);
+                    continue;
+                }
+                touch(entry, now);
+                refreshIfNecessary(entry, now);
+                return result;
+            }
+            
+            Entry<K, V> newEntry = new Entry<>(key, new SharedCall<>(), now);
+            if (null != entries.putIfAbsent(key, newEntry)) {
+                continue;
+            }
+            Promise<V> result = newEntry.shared.fork();
+            recordWrite(newEntry);
+            sweepExpiredIfNecessary(now);
+            newEntry.load.whenComplete((v, e) -> {
+                if (null != e) {
+                    remove(newEntry);
+                }
+            });
+            newEntry.load.start(key, loader);
+            return result;
+        }
+    }
+    
+    /**
+     * Returns the cached value for the key without loading it
+     * @param key
+     *   the key
+     * @return
+     *   the promise resolved with the value or null if there is no valid entry for the key
+     */
+    public Promise<V> getIfPresent(K key) {
+        Entry<K, V> entry = entries.get(key);
+        long now = now();
+        if (null == entry || isExpired(entry, now)) {
+            return null;
+        }
+        Promise<V> result = entry.shared.fork();
+        if (null != result) {
+            touch(entry, now);
+        }
+        return result;
+    }
+    
+    public void invalidate(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (null != entry) {
+            remove(entry);
+        }
+    }
+    
+    public void invalidateAll() {
+        for (Entry<K, V> entry : entries.values()) {
+            remove(entry);
+        }
+    }
+    
+    /**
+     * @return
+     *   the approximate number of entries including the ones being loaded
+     */
+    public long size() {
+        return entries.size();
+    }
+    
+    private boolean isExpired(Entry<K, V> entry, long now) {
+        if (!entry.load.isDone()) {
+            // Never expire the load in progress, otherwise concurrent misses start duplicate loads
+            return false;
+        }
+        return (expireAfterWriteNanos > 0 && now - entry.writeTime >= expireAfterWriteNanos) ||
+               (expireAfterAccessNanos > 0 && now - entry.accessTime >= expireAfterAccessNanos);
+    }
+    
+    /**
+     * Expired entries are otherwise removed only when their keys are read again, so the cache 
+     * over many distinct keys would grow without bound. The sweep is proportional to the cache size 
+     * and runs once per as many writes as there were entries left by the previous sweep, 
+     * so the cost per write is constant.
+     */
+    private void sweepExpiredIfNecessary(long now) {
+        if (expireAfterWriteNanos <= 0 && expireAfterAccessNanos <= 0) {
+            return;
+        }
+        int writes = writesSinceSweep.incrementAndGet();
+        if (writes < writesPerSweep || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writesSinceSweep.set(0);
+            for (Entry<K, V> entry : entries.values()) {
+                if (isExpired(entry, now)) {
+                    remove(entry);
+                }
+            }
+            writesPerSweep = Math.max(MIN_WRITES_PER_SWEEP, entries.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+    
+    private void refreshIfNecessary(Entry<K, V> entry, long now) {
+        if (refreshAfterWriteNanos <= 0 || 
+            now - entry.writeTime < refreshAfterWriteNanos ||
+            !entry.load.isDone() || entry.load.isCompletedExceptionally() ||
+            !entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        SharedCall<V> reload = new SharedCall<>();
+        reload.whenComplete((v, e) -> {
+            if (null == e) {
+                Entry<K, V> refreshed = new Entry<>(entry.key, reload, now());
+                if (entries.replace(entry.key, entry, refreshed)) {
+                    recordWrite(refreshed);
+                }
+            } else {
+                // Keep the current value, the next call will try again
+                entry.refreshing.set(false);
+            }
+        });
+        reload.start(entry.key, loader);
+    }
+    
+    private long now() {
+        return timed ? nanoTime.getAsLong() : 0;
+    }
+    
+    private void touch(Entry<K, V> entry, long now) {
+        if (expireAfterAccessNanos > 0) {
+            entry.accessTime = now;
+        }
+        recordRead(entry);
+    }
+    
+    private void remove(Entry<K, V> entry) {
+        if (entries.remove(entry.key, entry) && null != order) {
+            evictionLock.lock();
+            try {
+                order.remove(entry.key, entry);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+    
+    private void recordRead(Entry<K, V> entry) {
+        if (null == order) {
+            return;
+        }
+        int buffered = readBufferSize.get();
+        if (buffered < READ_BUFFER_SIZE) {
+            buffered = readBufferSize.incrementAndGet();
+            readBuffer.offer(entry);
+        }
+        // Writes drain the buffer anyway, so reads help only when it's filled enough
+        if (buffered >= READ_BUFFER_SIZE / 2 && evictionLock.tryLock()) {
+            try {
+                drainReads();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+    
+    private void recordWrite(Entry<K, V> entry) {
+        if (null == order) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            drainReads();
+            if (entries.get(entry.key) == entry) {
+                order.put(entry.key, entry);
+            }
+            Iterator<Map.Entry<K, Entry<K, V>>> eldest = order.entrySet().iterator();
+            while (order.size() > maximumSize && eldest.hasNext()) {
+                Entry<K, V> evicted = eldest.next().getValue();
+                eldest.remove();
+                // The load in progress is not cancelled, callers still get its result
+                entries.remove(evicted.key, evicted);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+    
+    private void drainReads() {
+        Entry<K, V> entry;
+        while (null != (entry = readBuffer.poll())) {
+            readBufferSize.decrementAndGet();
+            // Access-ordered map moves the key to the tail on get
+            order.get(entry.key);
+        }
+    }
+    
+    private static final class Entry<K, V> {
+        final K key;
+        final SharedCall<V> load;
+        final RefCountedPromise<V> shared;
+        final long writeTime;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long accessTime;
+        
+        Entry(K key, SharedCall<V> load, long writeTime) {
+            this.key = key;
+            this.load = load;
+            this.shared = new RefCountedPromise<>(load);
+            this.writeTime = writeTime;
+            this.accessTime = writeTime;
+        }
+    }
+    
+    public static class Builder {
+        private long maximumSize;
+        private long expireAfterWriteNanos;
+        private long expireAfterAccessNanos;
+        private long refreshAfterWriteNanos;
+        private LongSupplier nanoTime = System::nanoTime;
+        
+        protected Builder() {
+        }
+        
+        public Builder withMaximumSize(long maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("Maximum size should be positive but was: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+        
+        public Builder withExpireAfterWrite(Duration duration) {
+            this.expireAfterWriteNanos = checkDuration(duration);
+            return this;
+        }
+        
+        public Builder withExpireAfterAccess(Duration duration) {
+            this.expireAfterAccessNanos = checkDuration(duration);
+            return this;
+        }
+        
+        public Builder withRefreshAfterWrite(Duration duration) {
+            this.refreshAfterWriteNanos = checkDuration(duration);
+            return this;
+        }
+        
+        Builder withTicker(LongSupplier nanoTime) {
+            this.nanoTime = nanoTime;
+            return this;
+        }
+        
+        public <K, V> AsyncLoadingCache<K, V> build(Function<? super K, ? extends CompletionStage<V>> loader) {
+            return new AsyncLoadingCache<>(this, loader);
+        }
+        
+        private static long checkDuration(Duration duration) {
+            if (!DelayPolicy.isValid(duration)) {
+                throw new IllegalArgumentException("Duration should be positive but was: " + duration);
+            }
+            try {
+                return duration.toNanos();
+            } catch (ArithmeticException ex) {
+                return Long.MAX_VALUE;
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright 2015-2021 Valery Silaev (http://vsilaev.com)
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,21 +15,52 @@
  */
 package net.tascalate.concurrent;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 class AsyncLoop<T> extends CompletableFutureWrapper<T> {
+    private static final Object PENDING = new Object();
+    
     private final Predicate<? super T> loopCondition;
     private final Function<? super T, ? extends CompletionStage<T>> loopBody;
+    private final Executor hopExecutor;
+    private final int hopEvery;
+    
+    // Single continuation per loop, re-registered on every asynchronous iteration
+    private final BiConsumer<T, Throwable> continuation = this::resume;
+    private final Runnable hop = () -> drain(this.hopMissed);
+    
+    // Trampoline: only the thread that moved wip from 0 runs iterations,
+    // others just publish the value and leave
+    private final AtomicInteger wip = new AtomicInteger();
+    // Published before wip increment, read by the draining thread after wip decrement
+    private T pendingValue;
+    // Accessed only by the draining thread; on hop the draining thread leaves 
+    // without releasing wip and the hop task continues draining with the same count 
+    private int syncIterations;
+    private int hopMissed;
     
     private volatile CompletionStage<T> currentStage;
     
     AsyncLoop(Predicate<? super T> loopCondition, 
               Function<? super T, ? extends CompletionStage<T>> loopBody) {
+        this(loopCondition, loopBody, null, 0);
+    }
+    
+    AsyncLoop(Predicate<? super T> loopCondition, 
+              Function<? super T, ? extends CompletionStage<T>> loopBody,
+              Executor hopExecutor,
+              int hopEvery) {
         
         this.loopCondition = loopCondition;
         this.loopBody      = loopBody;
+        this.hopExecutor   = hopEvery > 0 ? hopExecutor : null;
+        this.hopEvery      = hopEvery;
     }
     
     @Override
@@ -46,74 +77,108 @@ class AsyncLoop<T> extends CompletableFutureWrapper<T> {
     }
     
     void run(T initialValue) {
-        run(initialValue, null, null);
+        resume(initialValue, null);
     }
     
-    private void run(T resolvedValue, Thread initialThread, IterationState<T> initialState) {
-        Thread currentThread = Thread.currentThread();
-        if (currentThread.equals(initialThread) && initialState.running) {
-            initialState.put(resolvedValue);
+    private void resume(T resolvedValue, Throwable ex) {
+        if (null != ex) {
+            failure(ex);
             return;
         }
-        IterationState<T> currentState = new IterationState<>();
-        T currentValue = resolvedValue;
-        try {
-            do {
+        pendingValue = resolvedValue;
+        if (wip.getAndIncrement() != 0) {
+            // Draining thread is still inside iterate(...), it will pick up the value
+            return;
+        }
+        drain(1);
+    }
+    
+    private void drain(int missed) {
+        do {
+            T value = pendingValue;
+            pendingValue = null;
+            // Every asynchronous completion resets the stack
+            syncIterations = 0;
+            if (iterate(value)) {
+                // Hop to the executor: wip is not released, so the loop can't be 
+                // continued on this thread even if the hop task starts right now
+                hopMissed = missed;
                 try {
-                    if (isDone()) {
-                        break;
-                    } else if (loopCondition.test(currentValue)) {
-                        CompletionStage<T> returned = loopBody.apply(currentValue);
-                        // Assign before check to avoid race
-                        currentStage = returned;
-                        // isDone() is never slower than isCancel() -- 
-                        // actually, the test is for cancellation
-                        // but isDone() is ok.
-                        if (isDone()) {
-                            // If race between this.cancel and this.run
-                            // Double-cancel is not an issue
-                            SharedFunctions.cancelPromise(returned, true);
-                            break;
-                        } else {
-                            returned.whenComplete((next, ex) -> {
-                                if (ex != null) {
-                                    failure(ex);
-                                } else {
-                                    run(next, currentThread, currentState);
-                                }
-                            });
-                        }
-                    } else {
-                        success(currentValue);
-                        break;
-                    }
+                    hopExecutor.execute(hop);
                 } catch (final Throwable ex) {
                     failure(ex);
-                    break;
                 }
-            } while ((currentValue = currentState.take()) != IterationState.END);
-        } finally {
-            currentState.running = false;
-        }
+                return;
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
     }
     
-    private static final class IterationState<T> {
-        static final Object END = new Object();
-        
-        boolean running = true;
-        
-        @SuppressWarnings("unchecked")
-        private T value = (T)END;
-        
-        @SuppressWarnings("unchecked")
-        T take() {
-            T result = value;
-            value = (T)END;
-            return result;
+    /**
+     * Runs iterations until the loop is done or waits for the asynchronous result
+     * @return
+     *   true if the loop should be continued on the hop executor with the pending value
+     */
+    private boolean iterate(T initialValue) {
+        T currentValue = initialValue;
+        while (true) {
+            try {
+                if (isDone()) {
+                    return false;
+                } else if (loopCondition.test(currentValue)) {
+                    CompletionStage<T> returned = loopBody.apply(currentValue);
+                    // Assign before check to avoid race
+                    currentStage = returned;
+                    // isDone() is never slower than isCancel() -- 
+                    // actually, the test is for cancellation
+                    // but isDone() is ok.
+                    if (isDone()) {
+                        // If race between this.cancel and this.run
+                        // Double-cancel is not an issue
+                        SharedFunctions.cancelPromise(returned, true);
+                        return false;
+                    } 
+                    
+                    Object completed = completedValue(returned);
+                    if (completed == PENDING) {
+                        returned.whenComplete(continuation);
+                        return false;
+                    }
+                    
+                    @SuppressWarnings("unchecked")
+                    T nextValue = (T)completed;
+                    if (null != hopExecutor && ++syncIterations >= hopEvery) {
+                        // Too many iterations on the current thread, 
+                        // continue on the executor
+                        pendingValue = nextValue;
+                        return true;
+                    }
+                    currentValue = nextValue;
+                } else {
+                    success(currentValue);
+                    return false;
+                }
+            } catch (final Throwable ex) {
+                failure(ex);
+                return false;
+            }
         }
-        
-        void put(T value) {
-            this.value = value;
+    }
+    
+    private static Object completedValue(CompletionStage<?> stage) {
+        // Fast path: successfully resolved stages are consumed without registering a callback;
+        // failed stages go through the regular callback to keep the reported exception intact
+        if (stage instanceof CompletableFuture) {
+            CompletableFuture<?> f = (CompletableFuture<?>)stage;
+            if (f.isDone() && !f.isCompletedExceptionally()) {
+                return f.join();
+            }
+        } else if (stage instanceof Promise) {
+            Promise<?> p = (Promise<?>)stage;
+            if (p.isDone() && !p.isCompletedExceptionally()) {
+                return p.join();
+            }
         }
+        return PENDING;
     }
 }
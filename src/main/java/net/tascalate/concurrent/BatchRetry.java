@@ -0,0 +1,151 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * State of the {@link Promises#retryBatch(Collection, Function, RetryPolicy)}: every item has its own 
+ * {@link RetryContext}, every round resubmits only items that are still failing. The backoff before the round
+ * is the maximum of the item backoffs, the timeout of the round is the minimum of the item timeouts.
+ */
+class BatchRetry<I, R> {
+    private final List<I> items;
+    private final Function<? super List<I>, ? extends CompletionStage<Map<I, Try<R>>>> batchOperation;
+    private final RetryPolicy<? super R> retryPolicy;
+    
+    private final Map<I, RetryContext<R>> pending = new LinkedHashMap<>();
+    private final Map<I, Try<R>> results = new LinkedHashMap<>();
+    
+    // Parameters of the next round
+    private Duration backoff;
+    private Duration timeout;
+    
+    BatchRetry(Collection<? extends I> items, 
+               Function<? super List<I>, ? extends CompletionStage<Map<I, Try<R>>>> batchOperation,
+               RetryPolicy<? super R> retryPolicy) {
+        this.items = new ArrayList<>(items);
+        this.batchOperation = batchOperation;
+        this.retryPolicy = retryPolicy;
+        resetRound();
+        RetryContext<R> initial = RetryContext.initial();
+        for (I item : this.items) {
+            if (!pending.containsKey(item) && !results.containsKey(item)) {
+                next(item, initial);
+            }
+        }
+    }
+    
+    boolean hasPending() {
+        return !pending.isEmpty();
+    }
+    
+    Promise<BatchRetry<I, R>> nextRound() {
+        List<I> batch = new ArrayList<>(pending.keySet());
+        Duration delay = backoff;
+        Duration limit = timeout;
+        resetRound();
+        if (DelayPolicy.isValid(delay)) {
+            return Timeouts.delay(delay)
+                           .dependent()
+                           .thenCompose(d -> invoke(batch, delay, limit), true);
+        } else {
+            return invoke(batch, delay, limit);
+        }
+    }
+    
+    Map<I, Try<R>> results() {
+        Map<I, Try<R>> ordered = new LinkedHashMap<>();
+        for (I item : items) {
+            ordered.put(item, results.get(item));
+        }
+        return Collections.unmodifiableMap(ordered);
+    }
+    
+    private Promise<BatchRetry<I, R>> invoke(List<I> batch, Duration delay, Duration limit) {
+        long startTime = System.nanoTime();
+        Promise<Map<I, Try<R>>> call;
+        try {
+            call = Promises.from(batchOperation.apply(Collections.unmodifiableList(batch)));
+        } catch (Throwable ex) {
+            call = Promises.failure(ex);
+        }
+        if (DelayPolicy.isValid(limit)) {
+            call = call.orTimeout(limit, true);
+        }
+        return call.dependent()
+                   .handle((r, e) -> {
+                       process(batch, r, e, Duration.ofNanos(System.nanoTime() - startTime), delay);
+                       return this;
+                   }, true);
+    }
+    
+    private void process(List<I> batch, Map<I, Try<R>> outcome, Throwable error, Duration duration, Duration delay) {
+        for (I item : batch) {
+            Try<R> result;
+            if (null != error) {
+                // The whole round is failed
+                result = Try.failure(error);
+            } else {
+                result = outcome.get(item);
+                if (null == result) {
+                    result = Try.failure(new NoSuchElementException("No result for the item " + item));
+                }
+            }
+            RetryContext<R> ctx = pending.remove(item);
+            if (result.isSuccess()) {
+                R value = result.done();
+                if (retryPolicy.acceptResult(value)) {
+                    results.put(item, result);
+                } else {
+                    next(item, ctx.nextRetry(duration, delay, value));
+                }
+            } else {
+                next(item, ctx.nextRetry(duration, delay, SharedFunctions.unwrapCompletionException(result.error())));
+            }
+        }
+    }
+    
+    private void next(I item, RetryContext<R> ctx) {
+        RetryPolicy.Verdict verdict = retryPolicy.shouldContinue(ctx);
+        if (verdict.shouldExecute()) {
+            pending.put(item, ctx);
+            if (verdict.backoffDelay().compareTo(backoff) > 0) {
+                backoff = verdict.backoffDelay();
+            }
+            Duration itemTimeout = verdict.timeout();
+            if (DelayPolicy.isValid(itemTimeout) && (!DelayPolicy.isValid(timeout) || itemTimeout.compareTo(timeout) < 0)) {
+                timeout = itemTimeout;
+            }
+        } else {
+            results.put(item, Try.failure(ctx.asFailure()));
+        }
+    }
+    
+    private void resetRound() {
+        backoff = Duration.ZERO;
+        timeout = Timeouts.NEGATIVE_DURATION;
+    }
+}
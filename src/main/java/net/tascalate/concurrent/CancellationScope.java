@@ -0,0 +1,179 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Group of promises that are cancelled together. Promises are registered with the scope when created,
+ * typically as <code>scope.register(CompletableTask.supplyAsync(...))</code>, and {@link #cancel(boolean)} 
+ * cancels all registered promises that are not completed yet; promises registered after the scope is cancelled 
+ * are cancelled immediately.
+ * <p>Members are cancelled in a single flat pass in the order of registration, so origins are cancelled before
+ * stages created from them and the failure propagates through the graph via regular completion of the dependent 
+ * stages. While the pass is running, cascading cancellation of other members of the same scope (for example,
+ * from {@link DependentPromise} enlisted origins) is not executed recursively but left to the pass, 
+ * so the stack depth doesn't grow with the size of the graph. Such deferred cancellation requests report 
+ * <code>true</code> right away, even if the member is completed normally before the pass reaches it.
+ * <p>Failure callbacks of the members are still dispatched by each member on its own as it is cancelled.
+ */
+public class CancellationScope {
+    private static final ThreadLocal<CancellationScope> ACTIVE = new ThreadLocal<>();
+    // Number of cancellation passes in progress, to skip thread local lookup when there are none
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+    
+    // Guarded by members
+    private final List<Member> members = new ArrayList<>();
+    private int pruneThreshold = 64;
+    
+    private volatile boolean cancelled;
+    // Members not yet visited by the cancellation pass, accessed only by the thread running the pass
+    private Set<CompletionStage<?>> pendingMembers = Collections.emptySet();
+    
+    public CancellationScope() {
+    }
+    
+    /**
+     * Registers the stage with this scope
+     * @param <S>
+     *   a type of the stage
+     * @param stage
+     *   the stage to register
+     * @return
+     *   the same stage to allow registration right at creation
+     */
+    public <S extends CompletionStage<?>> S register(S stage) {
+        Member member = new Member(stage);
+        boolean cancelNow;
+        synchronized (members) {
+            cancelNow = cancelled;
+            if (!cancelNow) {
+                if (members.size() >= pruneThreshold) {
+                    // Amortized removal of completed members to not keep them forever
+                    members.removeIf(Member::isDone);
+                    pruneThreshold = Math.max(64, members.size() * 2);
+                }
+                members.add(member);
+            }
+        }
+        if (cancelNow) {
+            SharedFunctions.cancelPromise(stage, true);
+        } else if (!(stage instanceof Future)) {
+            // Completion of plain stages can't be polled, so it's tracked with a callback
+            stage.whenComplete((r, e) -> member.done = true);
+        }
+        return stage;
+    }
+    
+    /**
+     * Cancels all registered stages that are not completed yet
+     * @param mayInterruptIfRunning
+     *   true if the thread executing the registered tasks should be interrupted
+     * @return
+     *   true if the scope was cancelled by this call, false if it was already cancelled
+     */
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        List<CompletionStage<?>> snapshot;
+        synchronized (members) {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            snapshot = new ArrayList<>(members.size());
+            for (Member member : members) {
+                snapshot.add(member.stage);
+            }
+            members.clear();
+        }
+        Set<CompletionStage<?>> pending = Collections.newSetFromMap(new IdentityHashMap<>(snapshot.size()));
+        pending.addAll(snapshot);
+        pendingMembers = pending;
+        CancellationScope previous = ACTIVE.get();
+        ACTIVE.set(this);
+        RUNNING.incrementAndGet();
+        try {
+            for (CompletionStage<?> stage : snapshot) {
+                pending.remove(stage);
+                if (!(stage instanceof Future && ((Future<?>)stage).isDone())) {
+                    SharedFunctions.cancelPromise(stage, mayInterruptIfRunning);
+                }
+            }
+        } finally {
+            RUNNING.decrementAndGet();
+            if (null == previous) {
+                ACTIVE.remove();
+            } else {
+                ACTIVE.set(previous);
+            }
+            pendingMembers = Collections.emptySet();
+        }
+        return true;
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Number of registered stages that are not known to be completed
+     * @return
+     *   the number of members
+     */
+    public int size() {
+        synchronized (members) {
+            return members.size();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s[cancelled=%s, members=%d]", getClass().getSimpleName(), cancelled, size());
+    }
+    
+    /**
+     * Checks whether cancellation of the stage is deferred to the cancellation pass of the scope 
+     * running in the current thread. The pass will try to cancel the stage later, so the actual 
+     * outcome is not known yet: the stage may still be completed normally before the pass reaches it.
+     */
+    static boolean isCancellationDeferred(CompletionStage<?> stage) {
+        if (RUNNING.get() == 0) {
+            return false;
+        }
+        CancellationScope active = ACTIVE.get();
+        return null != active && active.pendingMembers.contains(stage);
+    }
+    
+    private static final class Member {
+        final CompletionStage<?> stage;
+        // Set by the completion callback for stages that are not Future-s
+        volatile boolean done;
+        
+        Member(CompletionStage<?> stage) {
+            this.stage = stage;
+        }
+        
+        boolean isDone() {
+            return done || stage instanceof Future && ((Future<?>)stage).isDone();
+        }
+    }
+}
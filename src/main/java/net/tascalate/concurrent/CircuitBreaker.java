@@ -0,0 +1,387 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * <p>Circuit breaker that may be shared by many {@link RetryPolicy}-s (see {@link RetryPolicy#withCircuitBreaker(CircuitBreaker)})
+ * or used directly via {@link #execute(Supplier)}.
+ * <p>In the {@link State#CLOSED} state outcomes of calls are recorded into the sliding window of the last
+ * <code>windowSize</code> calls (a lock-free ring buffer). Once at least <code>minCalls</code> are recorded and either
+ * failure rate or slow calls rate reaches the corresponding threshold the breaker is {@link State#OPEN}: all calls are
+ * rejected immediately with {@link CircuitBreakerOpenException}. After <code>openStateDuration</code> the breaker
+ * becomes {@link State#HALF_OPEN} and lets <code>halfOpenPermits</code> trial calls through: if all of them succeed
+ * the breaker is closed again, otherwise it is re-opened. If the trial calls are not settled within 
+ * <code>openStateDuration</code>, for example when their outcomes are lost, a new set of permits is issued, 
+ * so the breaker can't get stuck in the {@link State#HALF_OPEN} state.
+ * <p>A call is slow when its duration (see {@link RetryContext#getLastCallDuration()}) exceeds
+ * <code>slowCallThreshold</code>.
+ */
+public class CircuitBreaker {
+    public static enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int SUCCESS = 1;
+    private static final int FAILURE = 2;
+    private static final int SLOW    = 4;
+
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openStateNanos;
+    private final int halfOpenPermits;
+    private final int windowSize;
+    private final LongSupplier nanoTime;
+
+    // Every transition replaces the phase as a whole, so the state is published 
+    // together with the time it was started, half-open permits or the new empty window
+    private final AtomicReference<Phase> phase;
+
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    protected CircuitBreaker(Builder builder) {
+        this.minCalls              = builder.minCalls;
+        this.failureRateThreshold  = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallThresholdNanos = toNanos(builder.slowCallThreshold);
+        this.openStateNanos        = toNanos(builder.openStateDuration);
+        this.halfOpenPermits       = builder.halfOpenPermits;
+        this.nanoTime              = builder.nanoTime;
+        this.windowSize            = builder.windowSize;
+        this.phase                 = new AtomicReference<>(Phase.closed(windowSize));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public State getState() {
+        return phase.get().state;
+    }
+
+    public double getFailureRate() {
+        Window window = phase.get().window;
+        return null == window ? 0 : window.rate(window.failedCalls);
+    }
+
+    public double getSlowCallRate() {
+        Window window = phase.get().window;
+        return null == window ? 0 : window.rate(window.slowCalls);
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+
+    /**
+     * Checks whether the call is permitted; every permitted call must be followed by either
+     * {@link #onSuccess(Duration)}, {@link #onFailure(Duration, Throwable)} or {@link #releasePermission()}
+     * @return
+     *   true if the call is permitted, false if the call should be rejected
+     */
+    public boolean tryAcquirePermission() {
+        while (true) {
+            Phase current = phase.get();
+            if (current.state == State.CLOSED) {
+                return true;
+            } else if (current.state == State.OPEN) {
+                long now = nanoTime.getAsLong();
+                if (now - current.startedAt < openStateNanos) {
+                    rejectedCalls.increment();
+                    return false;
+                }
+                // Permits are set before the half-open phase is visible
+                phase.compareAndSet(current, Phase.halfOpen(now, halfOpenPermits));
+                // Re-check in the new state
+            } else if (current.tryTakePermit()) {
+                return true;
+            } else {
+                long now = nanoTime.getAsLong();
+                if (now - current.startedAt < openStateNanos) {
+                    rejectedCalls.increment();
+                    return false;
+                }
+                // Trial calls are not settled in time, their outcomes may be lost
+                phase.compareAndSet(current, Phase.halfOpen(now, halfOpenPermits));
+                // Re-check with the new permits
+            }
+        }
+    }
+
+    /**
+     * Returns the permission acquired via {@link #tryAcquirePermission()} when the call is abandoned
+     * without an outcome, for example cancelled, so it's counted neither as a success nor as a failure
+     */
+    public void releasePermission() {
+        Phase current = phase.get();
+        if (current.state == State.HALF_OPEN) {
+            current.permitsLeft.incrementAndGet();
+        }
+    }
+
+    public void onSuccess(Duration callDuration) {
+        record(isSlow(callDuration) ? SUCCESS | SLOW : SUCCESS);
+    }
+
+    public void onFailure(Duration callDuration, Throwable error) {
+        record(isSlow(callDuration) ? FAILURE | SLOW : FAILURE);
+    }
+
+    /**
+     * Executes the call if permitted by this breaker and records its outcome
+     * @param <T>
+     *   a type of the result
+     * @param call
+     *   an asynchronous call
+     * @return
+     *   a promise of the call result or a promise failed with {@link CircuitBreakerOpenException} if rejected
+     */
+    public <T> Promise<T> execute(Supplier<? extends CompletionStage<T>> call) {
+        if (!tryAcquirePermission()) {
+            return Promises.failure(new CircuitBreakerOpenException(getState(), 0, Duration.ZERO, null));
+        }
+        long startTime = System.nanoTime();
+        CompletionStage<T> result;
+        try {
+            result = call.get();
+        } catch (Throwable ex) {
+            onFailure(Duration.ofNanos(System.nanoTime() - startTime), ex);
+            return Promises.failure(ex);
+        }
+        return Promises.from(result)
+                       .dependent()
+                       .whenComplete((r, ex) -> {
+                           Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
+                           if (null == ex) {
+                               onSuccess(duration);
+                           } else {
+                               onFailure(duration, ex);
+                           }
+                       }, true);
+    }
+
+    /**
+     * Resets the breaker to the {@link State#CLOSED} state with an empty sliding window
+     */
+    public void reset() {
+        phase.set(Phase.closed(windowSize));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s[state=%s, failureRate=%.3f, slowCallRate=%.3f, rejectedCalls=%d]",
+            getClass().getSimpleName(), getState(), getFailureRate(), getSlowCallRate(), getRejectedCalls()
+        );
+    }
+
+    private void record(int outcome) {
+        Phase current = phase.get();
+        if (current.state == State.HALF_OPEN) {
+            if ((outcome & (FAILURE | SLOW)) != 0) {
+                transitionToOpen(current);
+            } else if (current.successes.incrementAndGet() >= halfOpenPermits) {
+                phase.compareAndSet(current, Phase.closed(windowSize));
+            }
+        } else if (current.state == State.CLOSED) {
+            // Outcome recorded concurrently with the transition goes to the discarded window
+            if (current.window.record(outcome, minCalls, failureRateThreshold, slowCallRateThreshold)) {
+                transitionToOpen(current);
+            }
+        }
+        // Outcomes of calls permitted before the breaker was opened are ignored
+    }
+
+    private void transitionToOpen(Phase expected) {
+        // Only the winner publishes its time, so losers don't extend the open period
+        phase.compareAndSet(expected, Phase.open(nanoTime.getAsLong()));
+    }
+
+    private boolean isSlow(Duration callDuration) {
+        return null != callDuration && toNanos(callDuration) >= slowCallThresholdNanos;
+    }
+
+    private static int bit(int outcome, int mask) {
+        return (outcome & mask) != 0 ? 1 : 0;
+    }
+
+    private static long toNanos(Duration duration) {
+        return duration.compareTo(MAX_BY_NANOS) >= 0 ? Long.MAX_VALUE : duration.toNanos();
+    }
+
+    private static final Duration MAX_BY_NANOS = Duration.ofNanos(Long.MAX_VALUE);
+
+    private static final class Phase {
+        final State state;
+        // OPEN and HALF_OPEN only
+        final long startedAt;
+        // CLOSED only
+        final Window window;
+        // HALF_OPEN only
+        final AtomicInteger permitsLeft;
+        final AtomicInteger successes;
+
+        private Phase(State state, long startedAt, Window window, int permits) {
+            this.state       = state;
+            this.startedAt   = startedAt;
+            this.window      = window;
+            this.permitsLeft = state == State.HALF_OPEN ? new AtomicInteger(permits) : null;
+            this.successes   = state == State.HALF_OPEN ? new AtomicInteger() : null;
+        }
+
+        static Phase closed(int windowSize) {
+            return new Phase(State.CLOSED, 0, new Window(windowSize), 0);
+        }
+
+        static Phase open(long startedAt) {
+            return new Phase(State.OPEN, startedAt, null, 0);
+        }
+
+        static Phase halfOpen(long startedAt, int permits) {
+            return new Phase(State.HALF_OPEN, startedAt, null, permits);
+        }
+
+        boolean tryTakePermit() {
+            // Never goes below zero, so released permits are available again
+            while (true) {
+                int permits = permitsLeft.get();
+                if (permits <= 0) {
+                    return false;
+                } else if (permitsLeft.compareAndSet(permits, permits - 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    // Lock-free ring buffer of the last outcomes, replaced rather than cleared
+    private static final class Window {
+        final AtomicIntegerArray outcomes;
+        final AtomicLong position = new AtomicLong();
+        final AtomicInteger recordedCalls = new AtomicInteger();
+        final AtomicInteger failedCalls = new AtomicInteger();
+        final AtomicInteger slowCalls = new AtomicInteger();
+
+        Window(int size) {
+            outcomes = new AtomicIntegerArray(size);
+        }
+
+        /**
+         * Records the outcome
+         * @return
+         *   true if the thresholds are reached and the breaker should be opened
+         */
+        boolean record(int outcome, int minCalls, double failureRateThreshold, double slowCallRateThreshold) {
+            int size = outcomes.length();
+            int idx = (int)(position.getAndIncrement() % size);
+            int previous = outcomes.getAndSet(idx, outcome);
+            if (previous == 0) {
+                recordedCalls.incrementAndGet();
+            }
+            int failedDelta = bit(outcome, FAILURE) - bit(previous, FAILURE);
+            int slowDelta = bit(outcome, SLOW) - bit(previous, SLOW);
+            int failed = failedDelta == 0 ? failedCalls.get() : failedCalls.addAndGet(failedDelta);
+            int slow = slowDelta == 0 ? slowCalls.get() : slowCalls.addAndGet(slowDelta);
+            int calls = recordedCalls.get();
+            return calls >= minCalls && 
+                   ((double)failed / calls >= failureRateThreshold || (double)slow / calls >= slowCallRateThreshold);
+        }
+
+        double rate(AtomicInteger counter) {
+            int calls = recordedCalls.get();
+            // The counter may be behind the slot it was overwritten in by the concurrent record
+            return calls == 0 ? 0 : (double)Math.max(0, counter.get()) / calls;
+        }
+    }
+
+    public static class Builder {
+        private int windowSize = 100;
+        private int minCalls = 20;
+        private double failureRateThreshold = 0.5;
+        private double slowCallRateThreshold = 1.0;
+        private Duration slowCallThreshold = MAX_BY_NANOS;
+        private Duration openStateDuration = Duration.ofSeconds(30);
+        private int halfOpenPermits = 5;
+        private LongSupplier nanoTime = System::nanoTime;
+
+        protected Builder() {
+        }
+
+        public Builder withSlidingWindow(int windowSize, int minCalls) {
+            if (windowSize <= 0 || minCalls <= 0 || minCalls > windowSize) {
+                throw new IllegalArgumentException(
+                    "Window size should be positive and min calls should be in range (0, windowSize] but was: " + 
+                    windowSize + ", " + minCalls
+                );
+            }
+            this.windowSize = windowSize;
+            this.minCalls = minCalls;
+            return this;
+        }
+
+        public Builder withFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = checkRate(failureRateThreshold);
+            return this;
+        }
+
+        public Builder withSlowCallThreshold(Duration slowCallThreshold, double slowCallRateThreshold) {
+            this.slowCallThreshold = Objects.requireNonNull(slowCallThreshold, "slowCallThreshold");
+            this.slowCallRateThreshold = checkRate(slowCallRateThreshold);
+            return this;
+        }
+
+        public Builder withOpenStateDuration(Duration openStateDuration) {
+            this.openStateDuration = Objects.requireNonNull(openStateDuration, "openStateDuration");
+            return this;
+        }
+
+        public Builder withHalfOpenPermits(int halfOpenPermits) {
+            if (halfOpenPermits <= 0) {
+                throw new IllegalArgumentException("Number of half-open permits should be positive but was: " + halfOpenPermits);
+            }
+            this.halfOpenPermits = halfOpenPermits;
+            return this;
+        }
+
+        Builder withTicker(LongSupplier nanoTime) {
+            this.nanoTime = nanoTime;
+            return this;
+        }
+
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+
+        private static double checkRate(double rate) {
+            if (rate <= 0 || rate > 1) {
+                throw new IllegalArgumentException("Rate threshold should be in range (0, 1] but was: " + rate);
+            }
+            return rate;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+
+/**
+ * Exception reported when the call is rejected by the {@link CircuitBreaker}. The exception is created
+ * without a stack trace, so rejecting calls is cheap.
+ */
+public class CircuitBreakerOpenException extends RetryException {
+    private static final long serialVersionUID = 1L;
+
+    private final CircuitBreaker.State state;
+
+    public CircuitBreakerOpenException(CircuitBreaker.State state, int retry, Duration lastCallDuration, Throwable lastThrowable) {
+        super("Call is rejected, circuit breaker is " + state, retry, lastCallDuration, lastThrowable, false);
+        this.state = state;
+    }
+
+    public CircuitBreaker.State getState() {
+        return state;
+    }
+}
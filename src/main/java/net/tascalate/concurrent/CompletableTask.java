@@ -122,7 +122,8 @@ public class CompletableTask<T> extends AbstractCompletableTask<T> {
      * using <code>myExecutor</code>.
      * <p>Moreover, if <code>enforceDefaultAsync</code> is true, then default executor will be propagated to 
      * dependent promises even if corresponding transition was executed on another executor (via composition methods 
-     * with explicit executor argument).
+     * with explicit executor argument). Such promises may not be re-bound either: 
+     * {@link Promise#defaultAsyncOn(Executor)} returns the same promise and keeps the default executor.
      * 
      * @param executor
      *   a default {@link Executor} to run functions passed to async composition methods 
@@ -135,39 +136,7 @@ public class CompletableTask<T> extends AbstractCompletableTask<T> {
      */    
     public static Promise<Void> asyncOn(Executor executor, boolean enforceDefaultAsync) {
         Promise<Void> result = completed(null, executor);
-        if (enforceDefaultAsync) {
-            class EnforcedExecutorBoundPromise<T> extends ExecutorBoundPromise<T> {
-                public EnforcedExecutorBoundPromise(Promise<T> delegate) {
-                    super(delegate, executor);
-                }
-                
-                @Override
-                protected <U> Promise<U> wrapNew(CompletionStage<U> original) {
-                    return new EnforcedExecutorBoundPromise<>((Promise<U>)original);
-                }
-                
-                // No need to overwrite dependent(...) results
-                // while underlying delegate is undecorateable promise (this)
-                
-                @Override
-                public Promise<T> unwrap() {
-                    // We are wrapping always raw promise and
-                    // it's explicitly forbidden to remove own behavior
-                    // via enforceDefaultAsync
-                    return this;
-                }
-                
-                @Override
-                public Promise<T> raw() {
-                    // Same as for unwrap
-                    return this;
-                }
-            }
-            
-            return new EnforcedExecutorBoundPromise<>(result);
-        } else {
-            return result;
-        }
+        return enforceDefaultAsync ? new EnforcedExecutorBoundPromise<>(result, executor) : result;
     }
     
     /**
@@ -218,6 +187,29 @@ public class CompletableTask<T> extends AbstractCompletableTask<T> {
         return result;
     }
     
+    /**
+     * Returns a new {@link Promise} that is asynchronously resolved by a task running in the given executor 
+     * with the value obtained by calling the given {@link Callable}. Unlike 
+     * <code>asyncOn(executor, enforceDefaultAsync).thenApplyAsync(...)</code> the task is scheduled directly,
+     * without the intermediate resolved promise and its decorator.
+     * @param <U>
+     *   the function's return type
+     * @param call
+     *   a function returning the value to be used to resolve the returned {@link Promise}
+     * @param executor
+     *   the executor to use for asynchronous execution
+     * @param enforceDefaultAsync
+     *   if true then the executor will be propagated to dependent promises 
+     *   even if corresponding transition was executed on another executor, 
+     *   see {@link #asyncOn(Executor, boolean)} 
+     * @return
+     *   the new {@link Promise}
+     */
+    public static <U> Promise<U> submit(Callable<U> call, Executor executor, boolean enforceDefaultAsync) {
+        Promise<U> result = submit(call, executor);
+        return enforceDefaultAsync ? new EnforcedExecutorBoundPromise<>(result, executor) : result;
+    }
+    
     public static <T> Promise<T> waitFor(CompletionStage<T> stage, Executor executor) {
         return waitFor(stage, executor, false);
     }
@@ -264,4 +256,39 @@ public class CompletableTask<T> extends AbstractCompletableTask<T> {
     private static Set<PromiseOrigin> enlistParamOrNone(boolean enlistParam) {
         return enlistParam ? PromiseOrigin.PARAM_ONLY : PromiseOrigin.NONE;
     }
+    
+    private static class EnforcedExecutorBoundPromise<T> extends ExecutorBoundPromise<T> {
+        
+        EnforcedExecutorBoundPromise(Promise<T> delegate, Executor executor) {
+            super(delegate, executor);
+        }
+        
+        @Override
+        protected <U> Promise<U> wrapNew(CompletionStage<U> original) {
+            return new EnforcedExecutorBoundPromise<>((Promise<U>)original, getDefaultExecutor());
+        }
+        
+        // No need to overwrite dependent(...) results
+        // while underlying delegate is undecorateable promise (this)
+        
+        @Override
+        public Promise<T> defaultAsyncOn(Executor executor) {
+            // Default executor is enforced, it may not be re-bound
+            return this;
+        }
+        
+        @Override
+        public Promise<T> unwrap() {
+            // We are wrapping always raw promise and
+            // it's explicitly forbidden to remove own behavior
+            // via enforceDefaultAsync
+            return this;
+        }
+        
+        @Override
+        public Promise<T> raw() {
+            // Same as for unwrap
+            return this;
+        }
+    }
 }
@@ -887,9 +887,11 @@ public class ConfigurableDependentPromise<T> implements DependentPromise<T>, Dec
 
     static void cancelPromises(CompletionStage<?>[] promises, boolean mayInterruptIfRunning) {
         if (!isEmptyArray(promises)) {
-            Arrays.stream(promises)
-                  .filter(p -> p != null)
-                  .forEach(p -> cancelPromise(p, mayInterruptIfRunning));
+            for (CompletionStage<?> p : promises) {
+                if (p != null) {
+                    cancelPromise(p, mayInterruptIfRunning);
+                }
+            }
         }
     }
 
@@ -28,9 +28,12 @@ import java.util.function.Function;
 
 import net.tascalate.concurrent.delays.BoundedMaxDelayPolicy;
 import net.tascalate.concurrent.delays.BoundedMinDelayPolicy;
+import net.tascalate.concurrent.delays.DecorrelatedJitterDelayPolicy;
+import net.tascalate.concurrent.delays.ErrorHintDelayPolicy;
 import net.tascalate.concurrent.delays.ExponentialDelayPolicy;
 import net.tascalate.concurrent.delays.FirstRetryNoDelayPolicy;
 import net.tascalate.concurrent.delays.FixedIntervalDelayPolicy;
+import net.tascalate.concurrent.delays.FullJitterDelayPolicy;
 import net.tascalate.concurrent.delays.OnFailureNoDelayPolicy;
 import net.tascalate.concurrent.delays.OnSuccessNoDelayPolicy;
 import net.tascalate.concurrent.delays.ProportionalRandomDelayPolicy;
@@ -42,6 +45,15 @@ public interface DelayPolicy<T> {
     
     Duration delay(RetryContext<? extends T> retryContext);
     
+    /**
+     * Receives the latency of the successful call, so the policy may derive delays from the observed latencies,
+     * see {@link Promises#hedge(java.util.function.Supplier, DelayPolicy, int)}. Does nothing by default.
+     * @param latency
+     *   the time elapsed since the call was started
+     */
+    default void recordLatency(Duration latency) {
+    }
+    
     public static <T> DelayPolicy<T> fixedInterval() {
     	return new FixedIntervalDelayPolicy<>();
     }
@@ -74,6 +86,22 @@ public interface DelayPolicy<T> {
     	return exponential(Duration.ofMillis(initialDelayMillis), multiplier);
     }
     
+    public static <T> DelayPolicy<T> decorrelatedJitter(Duration base, Duration cap) {
+        return new DecorrelatedJitterDelayPolicy<>(base, cap);
+    }
+
+    public static <T> DelayPolicy<T> decorrelatedJitter(long base, long cap, TimeUnit timeUnit) {
+        return decorrelatedJitter(Timeouts.toDuration(base, timeUnit), Timeouts.toDuration(cap, timeUnit));
+    }
+    
+    public static <T> DelayPolicy<T> decorrelatedJitter(long baseMillis, long capMillis) {
+        return decorrelatedJitter(Duration.ofMillis(baseMillis), Duration.ofMillis(capMillis));
+    }
+    
+    default DelayPolicy<T> withFullJitter() {
+        return new FullJitterDelayPolicy<>(this);
+    }
+    
     default DelayPolicy<T> withUniformJitter() {
         return new UniformRandomDelayPolicy<>(this);
     }
@@ -130,6 +158,10 @@ public interface DelayPolicy<T> {
         return withMaxDelay(Duration.ofMillis(maxDelayMillis));
     }
 
+    default DelayPolicy<T> withErrorHint(ErrorHintDelayPolicy.HintExtractor<? super T> extractor) {
+        return new ErrorHintDelayPolicy<>(this, extractor);
+    }
+    
     default DelayPolicy<T> withFirstRetryNoDelay() {
         return new FirstRetryNoDelayPolicy<>(this);
     }
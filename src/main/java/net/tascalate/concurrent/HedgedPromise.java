@@ -0,0 +1,194 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+class HedgedPromise<T> extends CompletableFutureWrapper<T> {
+    private final Supplier<? extends CompletionStage<? extends T>> attemptFactory;
+    private final DelayPolicy<? super T> delayPolicy;
+    private final int maxAttempts;
+
+    // All fields below are guarded by the attempts list
+    private final List<CompletionStage<?>> attempts;
+    private final List<Throwable> errors;
+    private int launched;
+    private int failed;
+    // Set once the winner is chosen, before losers are cancelled and the result is completed
+    private boolean settled;
+    private Promise<?> timer;
+    private long lastLaunchTime;
+
+    HedgedPromise(Supplier<? extends CompletionStage<? extends T>> attemptFactory,
+                  DelayPolicy<? super T> delayPolicy,
+                  int maxAttempts) {
+        this.attemptFactory = attemptFactory;
+        this.delayPolicy    = delayPolicy;
+        this.maxAttempts    = maxAttempts;
+        this.attempts       = new ArrayList<>(maxAttempts);
+        this.errors         = new ArrayList<>(Collections.nCopies(maxAttempts, null));
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (super.cancel(mayInterruptIfRunning)) {
+            cancelAttempts(null);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    void run() {
+        launch(0);
+    }
+
+    private void launch(int expectedIndex) {
+        int index;
+        long startTime = System.nanoTime();
+        synchronized (attempts) {
+            // Either timer or failure of the previous attempt may launch the next one, but not both
+            if (isDone() || settled || launched != expectedIndex || launched >= maxAttempts) {
+                return;
+            }
+            index = launched++;
+            lastLaunchTime = startTime;
+            cancelTimer();
+        }
+
+        CompletionStage<? extends T> attempt;
+        try {
+            attempt = attemptFactory.get();
+        } catch (Throwable ex) {
+            onAttemptFailure(index, ex);
+            return;
+        }
+        boolean late;
+        synchronized (attempts) {
+            attempts.add(attempt);
+            late = settled;
+        }
+        if (late || isDone()) {
+            // Race with completion by the other attempt or cancellation
+            SharedFunctions.cancelPromise(attempt, true);
+            return;
+        }
+        attempt.whenComplete((r, ex) -> {
+            if (null == ex) {
+                onAttemptSuccess(attempt, r, startTime);
+            } else {
+                onAttemptFailure(index, ex);
+            }
+        });
+        scheduleNext(index + 1);
+    }
+
+    private void scheduleNext(int nextIndex) {
+        long launchTime;
+        synchronized (attempts) {
+            if (isDone() || settled || launched != nextIndex || launched >= maxAttempts) {
+                // Already launched on failure or no more attempts allowed
+                return;
+            }
+            launchTime = lastLaunchTime;
+        }
+        // The policy is an application code, so it's called outside of the lock
+        RetryContext<T> ctx = RetryContext.<T>initial()
+                                          .overrideRetryCount(nextIndex)
+                                          .overrideLastCallDuration(Duration.ofNanos(System.nanoTime() - launchTime));
+        Duration delay = delayPolicy.delay(ctx);
+        if (delay.isNegative()) {
+            // Next attempt is launched only on failure
+            return;
+        }
+        synchronized (attempts) {
+            if (isDone() || settled || launched != nextIndex) {
+                // Launched on failure while the delay was calculated
+                return;
+            }
+            if (!delay.isZero()) {
+                Promise<?> nextTimer = Timeouts.delay(delay);
+                timer = nextTimer;
+                nextTimer.whenComplete((d, ex) -> {
+                    if (null == ex) {
+                        launch(nextIndex);
+                    }
+                });
+                return;
+            }
+        }
+        launch(nextIndex);
+    }
+
+    private void onAttemptSuccess(CompletionStage<?> attempt, T result, long startTime) {
+        synchronized (attempts) {
+            if (isDone() || settled) {
+                return;
+            }
+            settled = true;
+        }
+        delayPolicy.recordLatency(Duration.ofNanos(System.nanoTime() - startTime));
+        // Losers are cancelled before the result is visible to the caller
+        cancelAttempts(attempt);
+        success(result);
+    }
+
+    private void onAttemptFailure(int index, Throwable ex) {
+        boolean allFailed;
+        int nextIndex;
+        synchronized (attempts) {
+            errors.set(index, SharedFunctions.unwrapCompletionException(ex));
+            failed++;
+            allFailed = failed == maxAttempts;
+            nextIndex = launched;
+        }
+        if (allFailed) {
+            failure(MultitargetException.of(
+                String.format("All hedged attempts were completed exceptionally (%d out of %d)", failed, maxAttempts), 
+                errors
+            ));
+        } else {
+            // Do not wait for the timer, replace the failed attempt immediately
+            launch(nextIndex);
+        }
+    }
+
+    private void cancelAttempts(CompletionStage<?> winner) {
+        List<CompletionStage<?>> losers;
+        synchronized (attempts) {
+            cancelTimer();
+            losers = new ArrayList<>(attempts);
+        }
+        for (CompletionStage<?> attempt : losers) {
+            if (attempt != winner) {
+                SharedFunctions.cancelPromise(attempt, true);
+            }
+        }
+    }
+
+    private void cancelTimer() {
+        Promise<?> currentTimer = timer;
+        timer = null;
+        if (null != currentTimer) {
+            currentTimer.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+class MapAsyncIterator<T, R> implements AsyncIterator<R> {
+    static final AsyncIterator<Object> EMPTY = () -> Promises.success(Optional.empty());
+
+    private final AsyncIterator<T> upstream;
+    private final int concurrency;
+    private final Function<? super T, ? extends CompletionStage<R>> mapper;
+
+    // Mapped elements in the order of upstream pulls
+    private final Deque<Promise<Optional<R>>> window = new ArrayDeque<>();
+    // The most recent upstream pull, the next one is chained to it to keep upstream calls sequential
+    private Promise<Optional<T>> lastPull;
+    private volatile boolean exhausted;
+
+    MapAsyncIterator(AsyncIterator<T> upstream,
+                     int concurrency,
+                     Function<? super T, ? extends CompletionStage<R>> mapper) {
+        this.upstream    = upstream;
+        this.concurrency = concurrency;
+        this.mapper      = mapper;
+    }
+
+    @Override
+    public Promise<Optional<R>> next() {
+        synchronized (window) {
+            while (!exhausted && window.size() < concurrency) {
+                window.addLast(mapped(pull()));
+            }
+            Promise<Optional<R>> result = window.pollFirst();
+            return null != result ? result : Promises.success(Optional.empty());
+        }
+    }
+
+    private Promise<Optional<T>> pull() {
+        Promise<Optional<T>> previous = lastPull;
+        Promise<Optional<T>> result;
+        if (null == previous) {
+            result = upstream.next();
+        } else {
+            result = previous.dependent()
+                             .thenCompose(v -> v.isPresent() ? upstream.next() : previous, true);
+        }
+        lastPull = result;
+        return result;
+    }
+
+    private Promise<Optional<R>> mapped(Promise<Optional<T>> pulled) {
+        return pulled.dependent().thenCompose(v -> {
+            if (v.isPresent()) {
+                return mapper.apply(v.get()).thenApply(Optional::of);
+            } else {
+                exhausted = true;
+                return Promises.success(Optional.empty());
+            }
+        }, true);
+    }
+}
@@ -16,56 +16,106 @@
 package net.tascalate.concurrent;
 
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+
+import net.tascalate.concurrent.core.ControlFlowExceptions;
 
 public class MultitargetException extends Exception {
     private final static long serialVersionUID = 1L;
 
     private final List<Throwable> exceptions;
+    // Non-null exceptions and their positions in the list above
+    private final int[] failedIndices;
+    private final List<Throwable> failures;
+    
+    private transient Supplier<String> messageSupplier;
+    private volatile String message;
 
     public MultitargetException(String message, List<Throwable> exceptions) {
-        super(message);
-        this.exceptions = exceptions == null ? 
-            Collections.emptyList() 
-            : 
-            Collections.unmodifiableList(exceptions);
-        List<Throwable> causes = this.exceptions
-                                     .stream()
-                                     .filter(Objects::nonNull)
-                                     .collect(Collectors.toList());
-        
+        this(message, exceptions, true);
+    }
+    
+    protected MultitargetException(String message, List<Throwable> exceptions, boolean writableStackTrace) {
+        this(message, null, 
+             exceptions == null ? Collections.emptyList() : Collections.unmodifiableList(exceptions), 
+             SparseList.of(exceptions), writableStackTrace);
+    }
+    
+    private MultitargetException(String message, Supplier<String> messageSupplier, 
+                                 List<Throwable> exceptions, SparseList sparse, boolean writableStackTrace) {
         // Need to report back internal details in some standard way
         // If there is a single error - then it's the cause
         // Otherwie no dedicated cause and a list of suppressed exceptions
-        switch (causes.size()) {
-            case 0: 
-                break;
-            case 1:
-                initCause(causes.get(0));
-                break;
-            default:
-                for (Throwable cause : causes) {
-                    addSuppressed(cause);
-                }
+        super(message, sparse.errors.length == 1 ? sparse.errors[0] : null, true, writableStackTrace);
+        this.message = message;
+        this.messageSupplier = messageSupplier;
+        this.exceptions = exceptions;
+        this.failedIndices = sparse.indices;
+        this.failures = Collections.unmodifiableList(Arrays.asList(sparse.errors));
+        if (sparse.errors.length > 1) {
+            for (Throwable cause : sparse.errors) {
+                addSuppressed(cause);
+            }
         }
     }
+    
+    static MultitargetException of(String message, List<Throwable> exceptions) {
+        return new MultitargetException(message, exceptions, !ControlFlowExceptions.isStackless());
+    }
+    
+    /**
+     * Creates the exception from the errors of the failed stages only, so the cost doesn't depend 
+     * on the total number of stages
+     * @param messageSupplier
+     *   the supplier of the message, invoked on the first call to {@link #getMessage()}
+     * @param size
+     *   the total number of stages
+     * @param indices
+     *   the positions of the failed stages, in ascending order 
+     * @param errors
+     *   the errors of the failed stages, in the same order as indices
+     * @return
+     *   the new exception
+     */
+    static MultitargetException sparse(Supplier<String> messageSupplier, int size, int[] indices, Throwable[] errors) {
+        SparseList sparse = new SparseList(size, indices, errors);
+        return new MultitargetException(null, messageSupplier, sparse, sparse, !ControlFlowExceptions.isStackless());
+    }
+    
+    @Override
+    public String getMessage() {
+        String result = message;
+        if (null == result) {
+            Supplier<String> supplier = messageSupplier;
+            if (null != supplier) {
+                // Races are harmless, the message is the same
+                message = result = supplier.get();
+                messageSupplier = null;
+            }
+        }
+        return result;
+    }
 
     public List<Throwable> getExceptions() {
         return exceptions;
     }
     
     Optional<Throwable> getFirstException() {
-        return exceptions.stream().filter(Objects::nonNull).findFirst();
+        return failures.isEmpty() ? Optional.empty() : Optional.of(failures.get(0));
     }
     
     public void printExceptions() {
@@ -131,18 +181,14 @@ public class MultitargetException extends Exception {
     }
     
     private <O extends Appendable> void printExceptions(O out, BiConsumer<Throwable, String> nestedExceptionPrinter) {
-        int idx = 0;
         int n = ((int)Math.log10(exceptions.size()) + 1);
         String idxPadder = "%0" + n + "d";
         String padding =  String.format("\t %1$-" + n + "s  ... ", ""); 
         Consumer<Throwable> printer = ex -> nestedExceptionPrinter.accept(ex, padding);
-        for (Throwable e : exceptions) {
-            if (null == e) {
-                idx++;
-                continue;
-            }
+        // Only failed positions are visited
+        for (int i = 0, size = failedIndices.length; i < size; i++) {
             try {
-                printException(String.format(idxPadder, idx++), e, out, printer);
+                printException(String.format(idxPadder, failedIndices[i]), failures.get(i), out, printer);
             } catch (IOException ex) {
                 throw new RuntimeException(ex);
             }
@@ -165,5 +211,65 @@ public class MultitargetException extends Exception {
         return Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());        
     }
     
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // Resolve lazy message before serialization
+        getMessage();
+        out.defaultWriteObject();
+    }
+    
     private static final String NEW_LINE = System.lineSeparator();
+    
+    /**
+     * Read-only list of the given size with nulls at all positions except the failed ones
+     */
+    static final class SparseList extends AbstractList<Throwable> implements RandomAccess, Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        final int size;
+        final int[] indices;
+        final Throwable[] errors;
+        
+        SparseList(int size, int[] indices, Throwable[] errors) {
+            this.size = size;
+            this.indices = indices;
+            this.errors = errors;
+        }
+        
+        static SparseList of(List<Throwable> exceptions) {
+            if (exceptions == null) {
+                return new SparseList(0, new int[0], new Throwable[0]);
+            }
+            if (exceptions instanceof SparseList) {
+                return (SparseList)exceptions;
+            }
+            int size = exceptions.size();
+            int[] indices = new int[size];
+            Throwable[] errors = new Throwable[size];
+            int count = 0;
+            int idx = 0;
+            for (Throwable ex : exceptions) {
+                if (null != ex) {
+                    indices[count] = idx;
+                    errors[count] = ex;
+                    count++;
+                }
+                idx++;
+            }
+            return new SparseList(size, Arrays.copyOf(indices, count), Arrays.copyOf(errors, count));
+        }
+        
+        @Override
+        public Throwable get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            int pos = Arrays.binarySearch(indices, index);
+            return pos < 0 ? null : errors[pos];
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+    }
 }
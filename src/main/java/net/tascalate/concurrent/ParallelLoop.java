@@ -0,0 +1,178 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+class ParallelLoop<S, T, A, R> extends CompletableFutureWrapper<R> {
+    private final Iterator<? extends S> values;
+    private final int maxConcurrency;
+    private final Function<? super S, ? extends CompletionStage<? extends T>> body;
+    private final Collector<? super T, A, R> downstream;
+    private final boolean failFast;
+
+    private final A accumulation;
+    // Guards both errors and accumulation
+    private final List<Throwable> errors = new ArrayList<>();
+    private final Set<CompletionStage<?>> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    // Accessed only by the draining thread
+    private boolean exhausted;
+    private int iterations;
+
+    ParallelLoop(Iterator<? extends S> values,
+                 int maxConcurrency,
+                 Function<? super S, ? extends CompletionStage<? extends T>> body,
+                 Collector<? super T, A, R> downstream,
+                 boolean failFast) {
+        this.values         = values;
+        this.maxConcurrency = maxConcurrency;
+        this.body           = body;
+        this.downstream     = downstream;
+        this.failFast       = failFast;
+        this.accumulation   = downstream.supplier().get();
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (super.cancel(mayInterruptIfRunning)) {
+            cancelInFlight();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    void run() {
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            spawn();
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void spawn() {
+        // New bodies are started only when completions free the slots
+        while (!isDone() && !exhausted && active.get() < maxConcurrency) {
+            S value;
+            try {
+                if (!values.hasNext()) {
+                    exhausted = true;
+                    break;
+                }
+                value = values.next();
+            } catch (Throwable ex) {
+                // State of the iterator is unknown, so stop the loop regardless of the mode
+                exhausted = true;
+                abort(ex);
+                return;
+            }
+            iterations++;
+            active.incrementAndGet();
+            CompletionStage<? extends T> stage;
+            try {
+                stage = body.apply(value);
+            } catch (Throwable ex) {
+                onIterationComplete(null, null, ex);
+                continue;
+            }
+            inFlight.add(stage);
+            if (isDone()) {
+                // Race with cancellation / failure
+                SharedFunctions.cancelPromise(stage, true);
+            }
+            stage.whenComplete((r, ex) -> onIterationComplete(stage, r, ex));
+        }
+        if (exhausted && active.get() == 0 && !isDone()) {
+            finish();
+        }
+    }
+
+    private void onIterationComplete(CompletionStage<?> stage, T result, Throwable ex) {
+        if (null != stage) {
+            inFlight.remove(stage);
+        }
+        if (null == ex) {
+            synchronized (errors) {
+                if (!isDone()) {
+                    downstream.accumulator().accept(accumulation, result);
+                }
+            }
+        } else if (failFast) {
+            abort(ex);
+        } else {
+            synchronized (errors) {
+                errors.add(SharedFunctions.unwrapCompletionException(ex));
+            }
+        }
+        active.decrementAndGet();
+        drain();
+    }
+
+    private void finish() {
+        List<Throwable> failures;
+        R result = null;
+        synchronized (errors) {
+            failures = new ArrayList<>(errors);
+            if (failures.isEmpty()) {
+                try {
+                    result = downstream.finisher().apply(accumulation);
+                } catch (Throwable ex) {
+                    failure(ex);
+                    return;
+                }
+            }
+        }
+        if (failures.isEmpty()) {
+            success(result);
+        } else {
+            failure(MultitargetException.of(
+                String.format("Parallel loop failed, %d of %d iterations completed exceptionally", 
+                              failures.size(), iterations), 
+                failures
+            ));
+        }
+    }
+
+    private void abort(Throwable ex) {
+        if (failure(SharedFunctions.unwrapCompletionException(ex))) {
+            cancelInFlight();
+        }
+    }
+
+    private void cancelInFlight() {
+        for (CompletionStage<?> stage : inFlight) {
+            SharedFunctions.cancelPromise(stage, true);
+        }
+    }
+}
@@ -253,6 +253,21 @@ public interface Promise<T> extends Future<T>, CompletionStage<T> {
         return ConfigurableDependentPromise.from(this, defaultEnlistOptions);
     }
     
+    /**
+     * Shares this {@link Promise} between several consumers: every consumer takes its own 
+     * {@link SharedPromise#fork()} that may be cancelled independently, while this promise 
+     * is cancelled only when all forks are cancelled.
+     * <p>Every call returns the new handle with its own count of forks, and each handle cancels this 
+     * promise once its own forks are cancelled. So call this method once and pass the handle 
+     * to all consumers rather than sharing the same promise several times.
+     * 
+     * @return
+     * the handle to create forks of this promise
+     */
+    default SharedPromise<T> share() {
+        return new SharedPromise<>(this);
+    }
+    
     // @Decorator
     default Promise<T> defaultAsyncOn(Executor executor) {
         return new ExecutorBoundPromise<>(this, executor);
@@ -0,0 +1,398 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>Structured concurrency for promises: subtasks are started via {@link #fork(Callable)} and are owned by 
+ * the scope, {@link #shutdown()} cancels all subtasks that are still running and {@link #close()} shuts 
+ * the scope down and awaits the subtasks, so no subtask outlives the block where the scope is opened:
+ * <pre>
+ * try (PromiseScope.ShutdownOnFailure scope = new PromiseScope.ShutdownOnFailure()) {
+ *     Promise&lt;User&gt; user = scope.fork(() -&gt; findUser(id));
+ *     Promise&lt;Order&gt; order = scope.fork(() -&gt; fetchOrder(id));
+ *     scope.join().get();
+ *     scope.throwIfFailed();
+ *     return new Response(user.join(), order.join());
+ * }
+ * </pre>
+ * <p>Policies are implemented by overriding {@link #handleComplete(Object, Throwable)}, see 
+ * {@link ShutdownOnFailure} and {@link ShutdownOnSuccess}. For the asynchronous code {@link #asAsyncCloseable()}
+ * returns the view that may be used with {@link Promises#tryApplyEx(java.util.concurrent.CompletionStage, java.util.function.Function)}
+ * and similar methods.
+ * <p>When no executor is specified subtasks run on a new virtual thread each if the JDK supports them 
+ * (Java 21+), otherwise on {@link ForkJoinPool#commonPool()}.
+ * 
+ * @param <T>
+ *   a type of the results of subtasks
+ */
+public class PromiseScope<T> implements AutoCloseable {
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = virtualThreadExecutorFactory();
+    
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final CancellationScope subtasks = new CancellationScope();
+    
+    // Number of subtasks that are not completed, guarded by this
+    private int running;
+    // Number of subtasks whose code is still executing, guarded by this; 
+    // the cancelled subtask is completed before its code reacts to the interruption
+    private int executing;
+    private boolean closed;
+    private List<CompletableFutureWrapper<Void>> joins = new ArrayList<>();
+    private List<CompletableFutureWrapper<Void>> terminations = new ArrayList<>();
+    
+    public PromiseScope() {
+        ExecutorService virtualThreads = newVirtualThreadExecutor();
+        this.executor = null != virtualThreads ? virtualThreads : ForkJoinPool.commonPool();
+        this.ownsExecutor = null != virtualThreads;
+    }
+    
+    public PromiseScope(Executor executor) {
+        this.executor = executor;
+        this.ownsExecutor = false;
+    }
+    
+    /**
+     * Starts the subtask in this scope
+     * @param <R>
+     *   a type of the subtask result
+     * @param task
+     *   the subtask
+     * @return
+     *   the promise of the subtask result; the promise is already cancelled if the scope is shut down
+     * @throws IllegalStateException
+     *   if the scope is closed
+     * @throws java.util.concurrent.RejectedExecutionException
+     *   if the executor rejects the subtask
+     */
+    public <R extends T> Promise<R> fork(Callable<? extends R> task) {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Scope is closed");
+            }
+            if (!isShutdown()) {
+                running++;
+            } else {
+                // Don't start the subtask that would be cancelled right away
+                CompletableFutureWrapper<R> cancelled = new CompletableFutureWrapper<>();
+                cancelled.cancel(true);
+                return cancelled;
+            }
+        }
+        Callable<R> call = () -> {
+            if (!enterSubtask()) {
+                // The scope is shut down while the subtask was queued
+                throw new CancellationException();
+            }
+            try {
+                return task.call();
+            } finally {
+                exitSubtask();
+            }
+        };
+        Promise<R> promise;
+        try {
+            promise = CompletableTask.submit(call, executor);
+        } catch (RuntimeException | Error ex) {
+            // The subtask will never be completed, so it should not be awaited
+            subtaskCompleted();
+            throw ex;
+        }
+        promise.whenComplete((r, e) -> onComplete(r, e));
+        subtasks.register(promise);
+        return promise;
+    }
+    
+    /**
+     * Cancels all subtasks that are not completed yet; subtasks forked later are cancelled immediately
+     */
+    public void shutdown() {
+        subtasks.cancel(true);
+    }
+    
+    public boolean isShutdown() {
+        return subtasks.isCancelled();
+    }
+    
+    /**
+     * Awaits completion of all subtasks forked so far. The cancelled subtask is completed right away, 
+     * while its code may still be running until it reacts to the interruption; use {@link #close()} 
+     * to await the code of subtasks as well.
+     * @return
+     *   the promise that is resolved when there are no running subtasks 
+     */
+    public Promise<Void> join() {
+        CompletableFutureWrapper<Void> result = new CompletableFutureWrapper<>();
+        synchronized (this) {
+            if (running > 0) {
+                joins.add(result);
+                return result;
+            }
+        }
+        result.success(null);
+        return result;
+    }
+    
+    /**
+     * Shuts down the scope and blocks until all subtasks are completed and their code 
+     * is not executing anymore; when the scope owns the executor the executor is terminated as well
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        shutdown();
+        try {
+            synchronized (this) {
+                while (running > 0 || executing > 0) {
+                    wait();
+                }
+            }
+            if (ownsExecutor) {
+                ExecutorService executorService = (ExecutorService)executor;
+                executorService.shutdown();
+                executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Asynchronous view of {@link #close()}: the scope is shut down immediately and the returned stage 
+     * is resolved once all subtasks are completed and their code is not executing anymore
+     * @return
+     *   the asynchronous view of this scope
+     */
+    public AsyncCloseable asAsyncCloseable() {
+        return () -> {
+            CompletableFutureWrapper<Void> terminated = new CompletableFutureWrapper<>();
+            boolean idle;
+            synchronized (this) {
+                closed = true;
+                idle = running == 0 && executing == 0;
+                if (!idle) {
+                    terminations.add(terminated);
+                }
+            }
+            shutdown();
+            if (idle) {
+                terminated.success(null);
+            }
+            return terminated.thenRun(() -> {
+                if (ownsExecutor) {
+                    ((ExecutorService)executor).shutdown();
+                }
+            });
+        };
+    }
+    
+    /**
+     * Invoked when the subtask is completed, before it's considered by {@link #join()}; 
+     * cancellation of subtasks due to {@link #shutdown()} is not reported
+     * @param result
+     *   the result of the subtask
+     * @param error
+     *   the error of the subtask or null if the subtask is successful
+     */
+    protected void handleComplete(T result, Throwable error) {
+        
+    }
+    
+    private void onComplete(T result, Throwable error) {
+        try {
+            Throwable ex = null == error ? null : SharedFunctions.unwrapCompletionException(error);
+            if (!(ex instanceof CancellationException && isShutdown())) {
+                handleComplete(result, ex);
+            }
+        } finally {
+            subtaskCompleted();
+        }
+    }
+    
+    private synchronized boolean enterSubtask() {
+        if (closed || isShutdown()) {
+            return false;
+        }
+        executing++;
+        return true;
+    }
+    
+    private void exitSubtask() {
+        List<CompletableFutureWrapper<Void>> completedTerminations = null;
+        synchronized (this) {
+            if (--executing == 0 && running == 0) {
+                notifyAll();
+                completedTerminations = takeTerminations();
+            }
+        }
+        if (null != completedTerminations) {
+            completedTerminations.forEach(t -> t.success(null));
+        }
+    }
+    
+    private void subtaskCompleted() {
+        List<CompletableFutureWrapper<Void>> completedJoins = null;
+        List<CompletableFutureWrapper<Void>> completedTerminations = null;
+        synchronized (this) {
+            if (--running == 0) {
+                notifyAll();
+                if (!joins.isEmpty()) {
+                    completedJoins = joins;
+                    joins = new ArrayList<>();
+                }
+                if (executing == 0) {
+                    completedTerminations = takeTerminations();
+                }
+            }
+        }
+        if (null != completedJoins) {
+            completedJoins.forEach(j -> j.success(null));
+        }
+        if (null != completedTerminations) {
+            completedTerminations.forEach(t -> t.success(null));
+        }
+    }
+    
+    // Guarded by this
+    private List<CompletableFutureWrapper<Void>> takeTerminations() {
+        if (terminations.isEmpty()) {
+            return null;
+        }
+        List<CompletableFutureWrapper<Void>> result = terminations;
+        terminations = new ArrayList<>();
+        return result;
+    }
+    
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (null == NEW_VIRTUAL_THREAD_EXECUTOR) {
+            return null;
+        }
+        try {
+            return (ExecutorService)NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+    
+    private static Method virtualThreadExecutorFactory() {
+        try {
+            // Java 21+
+            return java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException | SecurityException ex) {
+            return null;
+        }
+    }
+    
+    /**
+     * Scope that is shut down when any subtask fails
+     */
+    public static class ShutdownOnFailure extends PromiseScope<Object> {
+        private final AtomicReference<Throwable> firstError = new AtomicReference<>();
+        
+        public ShutdownOnFailure() {
+            super();
+        }
+        
+        public ShutdownOnFailure(Executor executor) {
+            super(executor);
+        }
+        
+        @Override
+        protected void handleComplete(Object result, Throwable error) {
+            if (null != error && firstError.compareAndSet(null, error)) {
+                shutdown();
+            }
+        }
+        
+        public Optional<Throwable> exception() {
+            return Optional.ofNullable(firstError.get());
+        }
+        
+        public void throwIfFailed() throws ExecutionException {
+            Throwable error = firstError.get();
+            if (null != error) {
+                throw new ExecutionException(error);
+            }
+        }
+    }
+    
+    /**
+     * Scope that is shut down when any subtask succeeds, the result of the scope is the result of this subtask
+     * 
+     * @param <T>
+     *   a type of the results of subtasks
+     */
+    public static class ShutdownOnSuccess<T> extends PromiseScope<T> {
+        private final AtomicReference<Optional<T>> firstResult = new AtomicReference<>();
+        private final AtomicReference<Throwable> firstError = new AtomicReference<>();
+        
+        public ShutdownOnSuccess() {
+            super();
+        }
+        
+        public ShutdownOnSuccess(Executor executor) {
+            super(executor);
+        }
+        
+        @Override
+        protected void handleComplete(T result, Throwable error) {
+            if (null == error) {
+                if (firstResult.compareAndSet(null, Optional.ofNullable(result))) {
+                    shutdown();
+                }
+            } else {
+                firstError.compareAndSet(null, error);
+            }
+        }
+        
+        /**
+         * Result of the first successful subtask
+         * @return
+         *   the result
+         * @throws ExecutionException
+         *   if no subtask succeeded, with the error of the first failed subtask as a cause
+         * @throws IllegalStateException
+         *   if neither subtask is completed
+         */
+        public T result() throws ExecutionException {
+            Optional<T> result = firstResult.get();
+            if (null != result) {
+                return result.orElse(null);
+            }
+            Throwable error = firstError.get();
+            if (null != error) {
+                throw new ExecutionException(error);
+            }
+            throw new IllegalStateException("No subtask completed");
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
@@ -36,6 +37,7 @@ import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -125,9 +127,43 @@ public final class Promises {
                                       Function<? super T, ? extends CompletionStage<T>> loopBody) {
         AsyncLoop<T> asyncLoop = new AsyncLoop<>(loopCondition, loopBody);
         asyncLoop.run(initialValue);
-        return asyncLoop;  
+        return asyncLoop;
     }
-    
+
+    /**
+     * Executes asynchronous loop like {@link #loop(Object, Predicate, Function)}, but after every
+     * <code>hopEvery</code> iterations completed synchronously (i.e. when the loop body returns already
+     * resolved stages) the loop continues on the <code>hopExecutor</code>, so the thread that started
+     * the loop is not monopolized by it.
+     * @param <T>
+     *   a type of the loop variable
+     * @param initialValue
+     *   an initial value of the loop variable
+     * @param loopCondition
+     *   a condition to continue the loop
+     * @param loopBody
+     *   an asynchronous body of the loop that returns the next value of the loop variable
+     * @param hopExecutor
+     *   an executor to continue the loop on
+     * @param hopEvery
+     *   a number of consecutive synchronous iterations before continuing on the executor, should be positive
+     * @return
+     *   a promise resolved with the last value of the loop variable
+     */
+    public static <T> Promise<T> loop(T initialValue,
+                                      Predicate<? super T> loopCondition,
+                                      Function<? super T, ? extends CompletionStage<T>> loopBody,
+                                      Executor hopExecutor,
+                                      int hopEvery) {
+        Objects.requireNonNull(hopExecutor, "hopExecutor");
+        if (hopEvery <= 0) {
+            throw new IllegalArgumentException("Number of iterations between executor hops should be positive: " + hopEvery);
+        }
+        AsyncLoop<T> asyncLoop = new AsyncLoop<>(loopCondition, loopBody, hopExecutor, hopEvery);
+        asyncLoop.run(initialValue);
+        return asyncLoop;
+    }
+
     public static <T, R extends AutoCloseable> Promise<T> tryApply(CompletionStage<R> stage,
                                                                    Function<? super R, ? extends T> fn) {
         return tryApply(from(stage), fn);
@@ -283,6 +319,123 @@ public final class Promises {
         return partitioned2(values.iterator(), values, batchSize, spawner, downstream, downstreamExecutor);
     }
     
+    /**
+     * <p>Executes asynchronous <code>body</code> for every value of the iterator keeping up to
+     * <code>maxConcurrency</code> bodies in flight: the next value is taken from the iterator only when
+     * a running body completes.
+     * <p>The first body completed exceptionally fails the resulting promise and cancels bodies in flight.
+     * Cancelling the resulting promise cancels bodies in flight as well.
+     * @param <S>
+     *   a type of the values
+     * @param values
+     *   an iterator over values to process
+     * @param maxConcurrency
+     *   a maximum number of bodies executed concurrently, should be positive
+     * @param body
+     *   an asynchronous action to execute for every value
+     * @return
+     *   a promise resolved when all values are processed
+     */
+    public static <S> Promise<Void> forEachAsync(Iterator<? extends S> values,
+                                                 int maxConcurrency,
+                                                 Function<? super S, ? extends CompletionStage<?>> body) {
+        return forEachAsync(values, maxConcurrency, body, discarding(), true);
+    }
+
+    public static <S> Promise<Void> forEachAsync(Stream<? extends S> values,
+                                                 int maxConcurrency,
+                                                 Function<? super S, ? extends CompletionStage<?>> body) {
+        return forEachAsync(values, maxConcurrency, body, discarding(), true);
+    }
+
+    /**
+     * <p>Executes asynchronous <code>body</code> for every value of the iterator keeping up to
+     * <code>maxConcurrency</code> bodies in flight and collects results of the bodies with the
+     * <code>downstream</code> collector in the order of completion.
+     * <p>When <code>failFast</code> is true then the first body completed exceptionally fails the resulting
+     * promise and cancels bodies in flight. Otherwise all values are processed and the resulting promise
+     * is failed with the {@link MultitargetException} that lists errors of all failed bodies in the order
+     * of completion. Cancelling the resulting promise cancels bodies in flight.
+     * @param <S>
+     *   a type of the values
+     * @param <T>
+     *   a type of the results of the body
+     * @param <A>
+     *   a type of the accumulation of the collector
+     * @param <R>
+     *   a type of the resulting promise
+     * @param values
+     *   an iterator over values to process
+     * @param maxConcurrency
+     *   a maximum number of bodies executed concurrently, should be positive
+     * @param body
+     *   an asynchronous action to execute for every value
+     * @param downstream
+     *   a collector of the results
+     * @param failFast
+     *   whether to stop on the first error or to process all values and report all errors
+     * @return
+     *   a promise resolved with the collected results
+     */
+    public static <S, T, A, R> Promise<R> forEachAsync(Iterator<? extends S> values,
+                                                       int maxConcurrency,
+                                                       Function<? super S, ? extends CompletionStage<? extends T>> body,
+                                                       Collector<? super T, A, R> downstream,
+                                                       boolean failFast) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency should be positive but was: " + maxConcurrency);
+        }
+        ParallelLoop<S, T, A, R> result = new ParallelLoop<>(values, maxConcurrency, body, downstream, failFast);
+        result.run();
+        return result;
+    }
+
+    public static <S, T, A, R> Promise<R> forEachAsync(Stream<? extends S> values,
+                                                       int maxConcurrency,
+                                                       Function<? super S, ? extends CompletionStage<? extends T>> body,
+                                                       Collector<? super T, A, R> downstream,
+                                                       boolean failFast) {
+        return forEachAsync(values.iterator(), maxConcurrency, body, downstream, failFast)
+               .dependent()
+               .asʹ(maybeClosingSource(values))
+               .unwrap();
+    }
+
+    /**
+     * Executes asynchronous loop keeping up to <code>maxConcurrency</code> bodies in flight while
+     * the <code>loopCondition</code> holds; the condition is re-checked every time a slot is freed.
+     * Error handling and cancellation are the same as for
+     * {@link #forEachAsync(Iterator, int, Function)}.
+     * @param loopCondition
+     *   a condition to start the next body
+     * @param maxConcurrency
+     *   a maximum number of bodies executed concurrently, should be positive
+     * @param loopBody
+     *   an asynchronous body of the loop
+     * @return
+     *   a promise resolved when the condition fails and all started bodies are completed
+     */
+    public static Promise<Void> parallelLoop(BooleanSupplier loopCondition,
+                                             int maxConcurrency,
+                                             Supplier<? extends CompletionStage<?>> loopBody) {
+        Iterator<Void> values = new Iterator<Void>() {
+            @Override
+            public boolean hasNext() {
+                return loopCondition.getAsBoolean();
+            }
+
+            @Override
+            public Void next() {
+                return null;
+            }
+        };
+        return forEachAsync(values, maxConcurrency, __ -> loopBody.get());
+    }
+
+    private static <T> Collector<T, ?, Void> discarding() {
+        return Collector.of(() -> null, (a, v) -> {}, (a, b) -> null, a -> null);
+    }
+
     private static <S, T, A, R> Promise<R> partitioned1(Iterator<? extends S> values, 
                                                         Object source,
                                                         int batchSize, 
@@ -484,6 +637,42 @@ public final class Promises {
         return atLeast(null == promises ? 0 : promises.size(), 0, cancelRemaining, promises);
     }
 
+    /**
+     * <p>Executes hedged (speculative) operation: the first attempt is started immediately and every next
+     * attempt is started when the delay returned by the <code>delayPolicy</code> elapses without a result,
+     * or immediately when one of the attempts running fails. Up to <code>maxAttempts</code> attempts are started.
+     * <p>The delay policy receives {@link RetryContext} where retry count is the number of attempts started so far
+     * and last call duration is the time elapsed since the previous attempt was started. A negative delay
+     * disables starting the next attempt by time (it is started only on failure). Use
+     * {@link net.tascalate.concurrent.delays.PercentileDelayPolicy} to derive delay from the observed latencies.
+     * <p>The resulting promise is resolved with the result of the first attempt completed normally, all other
+     * attempts are cancelled. If all attempts failed then the resulting promise is resolved faulty with
+     * {@link MultitargetException}. Cancelling the resulting promise cancels all attempts running.
+     *
+     * @param <T>
+     *   a type of the result
+     * @param attempt
+     *   a factory of the attempts
+     * @param delayPolicy
+     *   a policy to calculate delay before the next attempt
+     * @param maxAttempts
+     *   a maximum number of attempts, should be positive
+     * @return
+     *   a promise resolved with the result of the first successful attempt
+     */
+    public static <T> Promise<T> hedge(Supplier<? extends CompletionStage<? extends T>> attempt,
+                                       DelayPolicy<? super T> delayPolicy,
+                                       int maxAttempts) {
+        Objects.requireNonNull(attempt, "attempt");
+        Objects.requireNonNull(delayPolicy, "delayPolicy");
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Number of attempts should be positive but was: " + maxAttempts);
+        }
+        HedgedPromise<T> result = new HedgedPromise<>(attempt, delayPolicy, maxAttempts);
+        result.run();
+        return result;
+    }
+
     /**
      * <p>Returns a promise that is resolved successfully when any {@link CompletionStage} passed as parameters
      * is completed normally (race is possible); if all promises completed exceptionally, then resulting promise
@@ -1033,116 +1222,44 @@ public final class Promises {
             } catch (Throwable ex) {
                 return failure(ex);
             }
-        }, retryPolicy, true);
+        }, retryPolicy);
     }
 
+    /**
+     * <p>Executes the batch operation with retries; every round resubmits only the items that are still failing 
+     * according to the policy, so successful items are never re-sent. Every item has its own {@link RetryContext}, 
+     * the backoff before the round is the maximum of the item backoffs and the timeout of the round is the minimum 
+     * of the item timeouts. A missing result is handled as a failure of the item; a failure of the whole 
+     * operation is handled as a failure of every item of the round.
+     * <p>Retry budget of the policy is consumed per item, circuit breaker and listener of the policy are not used.
+     * @param <I>
+     *   a type of the items
+     * @param <R>
+     *   a type of the item results
+     * @param items
+     *   the items to process
+     * @param batchOperation
+     *   the operation that processes the batch of items and resolves the result per item
+     * @param retryPolicy
+     *   the policy applied to every item
+     * @return
+     *   the promise resolved with the final result per item, either success or {@link RetryException}, 
+     *   in the order of the items
+     */
+    public static <I, R> Promise<Map<I, Try<R>>> retryBatch(Collection<? extends I> items, 
+                                                            Function<? super List<I>, ? extends CompletionStage<Map<I, Try<R>>>> batchOperation,
+                                                            RetryPolicy<? super R> retryPolicy) {
+        BatchRetry<I, R> batch = new BatchRetry<>(items, batchOperation, retryPolicy);
+        return loop(batch, BatchRetry::hasPending, BatchRetry::nextRound)
+               .dependent()
+               .thenApply(BatchRetry::results, true);
+    }
+    
     private static <T extends C, C> Promise<T> retryImpl(Function<? super RetryContext<C>, ? extends Promise<T>> futureFactory, 
-                                                         RetryPolicy<? super C> retryPolicy,
-                                                         boolean usePrevAsync) {
-
-        class State {
-            private final boolean isDone;
-            private final DependentPromise<?> prevAsync;
-
-            final RetryContext<C> ctx;
-            final RetryPolicy.Verdict verdict;
-            
-            
-            private State(RetryContext<C> ctx, DependentPromise<?> prevAsync, boolean isDone) {
-                this.ctx       = ctx;
-                this.prevAsync = prevAsync;
-                this.isDone    = isDone;
-                this.verdict   = isDone ? null : retryPolicy.shouldContinue(ctx);
-            }
-            
-            // Initial
-            State(RetryContext<C> ctx) {
-                this(ctx, null, false);
-            }
-            
-            // Transition to intermediate
-            State next(Throwable error, Duration d, DependentPromise<?> prevAsync) {
-               return new State(ctx.nextRetry(d, unwrapCompletionException(error)), useAsync(prevAsync), false); 
-            }
-            
-            State next(T result, Duration d, DependentPromise<?> prevAsync) {
-                return new State(ctx.nextRetry(d, result), useAsync(prevAsync), false);
-            }
-            
-            // Transition to final
-            State done(T result, Duration d) {
-                return new State(ctx.nextRetry(d, result), null, true);
-            }
-            
-            boolean isRunning() {
-                return !isDone && verdict.shouldExecute();
-            }
-            
-            @SuppressWarnings("unchecked")
-            Promise<T> toPromise() {
-                // it's safe to cast types C -> T while we use T in done
-                return  isDone ? success((T)ctx.getLastResult()) : failure(ctx.asFailure());
-            }
-            
-            private DependentPromise<?> useAsync(DependentPromise<?> prevAsync) {
-                return prevAsync != null ? prevAsync : this.prevAsync;
-            }
-            
-            DependentPromise<?> makeDelay(Duration delay) {
-                return prevAsync == null ?
-                    Timeouts.delay(delay).dependent()
-                    :
-                    prevAsync.exceptionally(SharedFunctions.nullify()) // Don't propagate own error
-                             .delay(delay, true, true);
-            }
-        }
-        
-        return loop(new State(RetryContext.initial()), State::isRunning , currentState -> {
-            RetryContext<C> ctx = currentState.ctx;
-            RetryPolicy.Verdict verdict = currentState.verdict;
-
-            Supplier<Promise<State>> callSupplier = () -> {
-                long startTime = System.nanoTime();
-
-                DependentPromise<T> target = futureFactory.apply(ctx).dependent();
-                DependentPromise<T> withTimeout;
-                
-                Duration timeout = verdict.timeout();
-                if (DelayPolicy.isValid(timeout)) {
-                    withTimeout = target.orTimeout(timeout, true, true);
-                } else {
-                    withTimeout = target;
-                }
-
-                return withTimeout.handle((value, ex) -> {
-                    Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
-                    if (null == ex) {
-                        if (retryPolicy.acceptResult(value)) {
-                            return currentState.done(value, duration);
-                        } else {
-                            return currentState.next(value, duration, target);
-                        }
-                    } else {
-                        return currentState.next(ex, duration, target);
-                    }                  
-                }, true);
-            };
-            
-            Duration backoffDelay = verdict.backoffDelay();
-            return DelayPolicy.isValid(backoffDelay) ?
-                currentState
-                .makeDelay(backoffDelay)
-                .thenCompose(__ -> callSupplier.get(), true)
-                .exceptionally(ex -> {
-                    // May be thrown when backoff delay is interrupted (canceled)
-                    return currentState.next(ex, Duration.ZERO, null);
-                 }, true)
-                :
-                callSupplier.get();
-        })
-        .dependent()
-        .thenCompose(State::toPromise, true)
-        .unwrap();
+                                                         RetryPolicy<? super C> retryPolicy) {
+        RetryPromise<T, C> result = new RetryPromise<>(futureFactory, retryPolicy);
+        result.start();
+        return result;
     }    
     
     private static <T, U> Promise<T> transform(CompletionStage<U> original, 
@@ -1172,7 +1289,7 @@ public final class Promises {
         if (exception instanceof MultitargetException) {
             return (MultitargetException)exception;
         } else {
-            return new MultitargetException(
+            return MultitargetException.of(
                 "Aggregated promise was completed exceptionally (1 out of 1)", 
                 Collections.singletonList(exception)
             );
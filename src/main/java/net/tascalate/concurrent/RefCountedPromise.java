@@ -0,0 +1,135 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Shares the single origin promise between several consumers: every consumer gets its own fork that 
+ * is resolved with the origin result. Cancelling a fork cancels only the fork itself, while the origin 
+ * is cancelled when every fork is cancelled.
+ * <p>The origin has a single completion callback that resolves the forks not cancelled so far, 
+ * so repeated fork / cancel cycles on the long-lived origin don't accumulate callbacks.
+ */
+class RefCountedPromise<T> {
+    private static final int CLOSED = -1;
+    
+    private final Promise<T> origin;
+    // Number of not cancelled forks, CLOSED once the origin is cancelled
+    private final AtomicInteger refs = new AtomicInteger();
+    // Forks waiting for the origin result, a fork is resolved by whoever removes it from the set
+    private final Set<Fork> pendingForks = ConcurrentHashMap.newKeySet();
+    // Set once the origin is completed, before pending forks are resolved
+    private volatile Try<T> outcome;
+    
+    RefCountedPromise(Promise<T> origin) {
+        this.origin = origin;
+        origin.whenComplete(this::onOriginComplete);
+    }
+    
+    Promise<T> origin() {
+        return origin;
+    }
+    
+    /**
+     * Creates the new fork of the origin
+     * @return
+     *   the fork or null if the origin is already cancelled because all previous forks were cancelled
+     */
+    Promise<T> fork() {
+        while (true) {
+            int current = refs.get();
+            if (current == CLOSED) {
+                return null;
+            }
+            if (refs.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        Fork fork = new Fork();
+        Try<T> result = outcome;
+        if (null != result) {
+            // Fast path for the completed origin
+            fork.resolve(result);
+            return fork;
+        }
+        pendingForks.add(fork);
+        result = outcome;
+        if (null != result && pendingForks.remove(fork)) {
+            // Origin completed concurrently and its callback didn't see the fork
+            fork.resolve(result);
+        }
+        return fork;
+    }
+    
+    int forks() {
+        return Math.max(0, refs.get());
+    }
+    
+    boolean closed() {
+        return refs.get() == CLOSED;
+    }
+    
+    private void onOriginComplete(T value, Throwable error) {
+        Try<T> result = null == error ? Try.success(value) : Try.failure(error);
+        outcome = result;
+        for (Fork fork : pendingForks) {
+            if (pendingForks.remove(fork)) {
+                fork.resolve(result);
+            }
+        }
+    }
+    
+    private void release() {
+        if (refs.decrementAndGet() == 0 && refs.compareAndSet(0, CLOSED)) {
+            SharedFunctions.cancelPromise(origin, true);
+        }
+    }
+    
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<RefCountedPromise.Fork> RELEASED_UPDATER =
+        AtomicIntegerFieldUpdater.newUpdater(RefCountedPromise.Fork.class, "released");
+    
+    private final class Fork extends CompletableFutureWrapper<T> {
+        // Cancellation of the already cancelled future returns true again, so release only once
+        volatile int released;
+        
+        void resolve(Try<T> result) {
+            if (result.isSuccess()) {
+                success(result.done());
+            } else {
+                failure(result.error());
+            }
+        }
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (super.cancel(mayInterruptIfRunning)) {
+                if (RELEASED_UPDATER.compareAndSet(this, 0, 1)) {
+                    // Cancelled fork is not reachable from the origin anymore
+                    pendingForks.remove(this);
+                    release();
+                }
+                return true;
+            } else {
+                return false;
+            }
+        }
+    }
+}
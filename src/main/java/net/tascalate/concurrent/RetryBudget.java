@@ -0,0 +1,187 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>Budget of retries shared by all callers of the {@link RetryPolicy} (or several policies).
+ * <p>Every first attempt deposits <code>ratio</code> of a token, every retry withdraws the whole token;
+ * additionally <code>minRetriesPerSecond</code> tokens are always available to allow retries under low traffic.
+ * Deposits and withdrawals expire after <code>ttl</code>. Once the budget is exhausted retries are denied, so
+ * during an outage the load on the failing service is bounded by <code>(1 + ratio)</code> of the regular load
+ * instead of being multiplied by the number of retries.
+ * <p>Counters are striped and updated without locks, so the balance is approximate under contention.
+ */
+public class RetryBudget {
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(10);
+
+    private final double ratio;
+    private final int minRetriesPerSecond;
+    private final Duration ttl;
+    private final Bucket[] buckets;
+    private final LongSupplier nanoTime;
+    private final LongAdder rejections = new LongAdder();
+
+    public RetryBudget(double ratio, int minRetriesPerSecond) {
+        this(ratio, minRetriesPerSecond, DEFAULT_TTL);
+    }
+
+    public RetryBudget(double ratio, int minRetriesPerSecond, Duration ttl) {
+        this(ratio, minRetriesPerSecond, ttl, System::nanoTime);
+    }
+
+    RetryBudget(double ratio, int minRetriesPerSecond, Duration ttl, LongSupplier nanoTime) {
+        if (ratio < 0 || ratio > 1000) {
+            throw new IllegalArgumentException("Ratio should be in range [0, 1000] but was: " + ratio);
+        }
+        if (minRetriesPerSecond < 0) {
+            throw new IllegalArgumentException("Min retries per second should not be negative but was: " + minRetriesPerSecond);
+        }
+        long ttlSeconds = ttl.getSeconds();
+        if (ttlSeconds < 1 || ttlSeconds > 60) {
+            throw new IllegalArgumentException("TTL should be in range [1s, 60s] but was: " + ttl);
+        }
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.nanoTime = nanoTime;
+        this.buckets = new Bucket[(int)ttlSeconds];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Registers the first attempt of the operation
+     */
+    public void deposit() {
+        currentBucket().deposits.increment();
+    }
+
+    /**
+     * Tries to withdraw a token for the retry
+     * @return
+     *   true if the retry is allowed, false if the budget is exhausted
+     */
+    public boolean tryWithdraw() {
+        long now = currentSecond();
+        if (balance(now) >= 1) {
+            bucket(now).withdrawals.increment();
+            return true;
+        } else {
+            rejections.increment();
+            return false;
+        }
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+
+    public int getMinRetriesPerSecond() {
+        return minRetriesPerSecond;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * @return
+     *   a number of retries currently available
+     */
+    public long getBalance() {
+        return (long)Math.max(0, balance(currentSecond()));
+    }
+
+    /**
+     * @return
+     *   a number of first attempts registered within TTL
+     */
+    public long getDeposits() {
+        return sum(currentSecond(), true);
+    }
+
+    /**
+     * @return
+     *   a number of retries allowed within TTL
+     */
+    public long getWithdrawals() {
+        return sum(currentSecond(), false);
+    }
+
+    /**
+     * @return
+     *   a total number of retries denied since creation
+     */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s[ratio=%s, minRetriesPerSecond=%d, ttl=%s, balance=%d, rejections=%d]",
+            getClass().getSimpleName(), ratio, minRetriesPerSecond, ttl, getBalance(), getRejections()
+        );
+    }
+
+    private double balance(long now) {
+        return (double)minRetriesPerSecond * buckets.length + ratio * sum(now, true) - sum(now, false);
+    }
+
+    private long sum(long now, boolean deposits) {
+        long result = 0;
+        for (Bucket bucket : buckets) {
+            if (now - bucket.second < buckets.length) {
+                result += deposits ? bucket.deposits.sum() : bucket.withdrawals.sum();
+            }
+        }
+        return result;
+    }
+
+    private Bucket currentBucket() {
+        return bucket(currentSecond());
+    }
+
+    private Bucket bucket(long second) {
+        Bucket bucket = buckets[(int)Math.floorMod(second, (long)buckets.length)];
+        if (bucket.second != second) {
+            synchronized (bucket) {
+                if (bucket.second != second) {
+                    // Expired bucket is reused for the current second
+                    bucket.deposits.reset();
+                    bucket.withdrawals.reset();
+                    bucket.second = second;
+                }
+            }
+        }
+        return bucket;
+    }
+
+    private long currentSecond() {
+        return Math.floorDiv(nanoTime.getAsLong(), 1_000_000_000L);
+    }
+
+    private static final class Bucket {
+        final LongAdder deposits = new LongAdder();
+        final LongAdder withdrawals = new LongAdder();
+        volatile long second = Long.MIN_VALUE / 2;
+    }
+}
@@ -17,15 +17,21 @@ package net.tascalate.concurrent;
 
 import java.time.Duration;
 
+import net.tascalate.concurrent.core.ControlFlowExceptions;
+
 public final class RetryContext<T> {
+    private static final RetryContext<Object> INITIAL = new RetryContext<>(0, Duration.ZERO, Duration.ZERO, null, null);
+    
     private final int retryCount;
     private final Duration lastCallDuration;
+    private final Duration lastBackoffDelay;
     private final T lastResult;
     private final Throwable lastError;
     
-    private RetryContext(int retryCount, Duration lastCallDuration, T lastResult, Throwable lastError) {
+    private RetryContext(int retryCount, Duration lastCallDuration, Duration lastBackoffDelay, T lastResult, Throwable lastError) {
         this.retryCount = retryCount;
         this.lastCallDuration = lastCallDuration;
+        this.lastBackoffDelay = lastBackoffDelay;
         this.lastResult = lastResult;
         this.lastError  = lastError;
     }
@@ -38,6 +44,15 @@ public final class RetryContext<T> {
         return lastCallDuration;
     }
 
+    /**
+     * Delay applied before the last call; {@link Duration#ZERO} when the call was executed immediately
+     * @return
+     *   the last backoff delay
+     */
+    public Duration getLastBackoffDelay() {
+        return lastBackoffDelay;
+    }
+
     public T getLastResult() {
         return lastResult;
     }    
@@ -47,35 +62,46 @@ public final class RetryContext<T> {
     }
     
     public RetryContext<T> overrideRetryCount(int newRetryCount) {
-        return new RetryContext<>(newRetryCount, lastCallDuration, lastResult, lastError);
+        return new RetryContext<>(newRetryCount, lastCallDuration, lastBackoffDelay, lastResult, lastError);
     }
     
     public RetryContext<T> overrideLastCallDuration(Duration newDuration) {
-        return new RetryContext<>(retryCount, newDuration, lastResult, lastError);
+        return new RetryContext<>(retryCount, newDuration, lastBackoffDelay, lastResult, lastError);
     }
 
     public RetryContext<T> overrideLastResult(T newResult) {
-        return new RetryContext<>(retryCount, lastCallDuration, newResult, lastError);
+        return new RetryContext<>(retryCount, lastCallDuration, lastBackoffDelay, newResult, lastError);
     }
     
     public RetryContext<T> overrideLastError(Throwable newError) {
-        return new RetryContext<>(retryCount, lastCallDuration, lastResult, newError);
+        return new RetryContext<>(retryCount, lastCallDuration, lastBackoffDelay, lastResult, newError);
+    }
+    
+    public RetryContext<T> overrideLastBackoffDelay(Duration newDelay) {
+        return new RetryContext<>(retryCount, lastCallDuration, newDelay, lastResult, lastError);
     }
     
+    @SuppressWarnings("unchecked")
     static <T> RetryContext<T> initial() {
-        return new RetryContext<>(0, Duration.ZERO, null, null);
+        // Immutable, so may be shared
+        return (RetryContext<T>)INITIAL;
     }
     
-    RetryContext<T> nextRetry(Duration callDuration, T lastResult) {
-        return new RetryContext<>(retryCount + 1, callDuration, lastResult, null);
+    RetryContext<T> nextRetry(Duration callDuration, Duration backoffDelay, T lastResult) {
+        return new RetryContext<>(retryCount + 1, callDuration, backoffDelay, lastResult, null);
     }
     
-    RetryContext<T> nextRetry(Duration callDuration, Throwable lastError) {
-        return new RetryContext<>(retryCount + 1, callDuration, null, lastError);
+    RetryContext<T> nextRetry(Duration callDuration, Duration backoffDelay, Throwable lastError) {
+        return new RetryContext<>(retryCount + 1, callDuration, backoffDelay, null, lastError);
     }
 
     
     RetryException asFailure() {
+        if (ControlFlowExceptions.isStackless()) {
+            return new RetryException(
+                null == lastError ? null : lastError.toString(), retryCount, lastCallDuration, lastError, false
+            );
+        }
         RetryException result = new RetryException(retryCount, lastCallDuration, lastError);
         result.fillInStackTrace();
         return result;
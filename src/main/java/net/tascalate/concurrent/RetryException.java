@@ -34,6 +34,12 @@ public class RetryException extends Exception {
         this.lastCallDuration = lastCallDuration;
     }
     
+    protected RetryException(String message, int retry, Duration lastCallDuration, Throwable lastThrowable, boolean writableStackTrace) {
+        super(message, lastThrowable, false, writableStackTrace);
+        this.retry = retry;
+        this.lastCallDuration = lastCallDuration;
+    }
+    
     public int getRetryCount() {
         return retry;
     }
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+
+/**
+ * <p>Receives events of the retry process executed according to the {@link RetryPolicy}, 
+ * see {@link RetryPolicy#withListener(RetryListener)}. All methods are no-op by default.
+ * <p>Methods are invoked synchronously by the thread that drives the retry, so implementations 
+ * should be fast and non-blocking; exceptions thrown by the listener are ignored.
+ * 
+ * @param <T>
+ *   a type of the results
+ */
+public interface RetryListener<T> {
+    
+    public static enum GiveUpReason {
+        /**
+         * Maximum number of retries is exceeded
+         */
+        MAX_RETRIES_EXCEEDED,
+        /**
+         * Last error or result is not retryable according to the policy rules
+         */
+        NOT_RETRYABLE,
+        /**
+         * Retry is denied by the {@link RetryBudget}
+         */
+        RETRY_BUDGET_EXHAUSTED,
+        /**
+         * Call is rejected by the open {@link CircuitBreaker}
+         */
+        CIRCUIT_BREAKER_OPEN
+    }
+
+    /**
+     * Invoked before the call
+     * @param context
+     *   the context of the call
+     */
+    default void onAttemptStart(RetryContext<? extends T> context) {}
+    
+    /**
+     * Invoked when the call failed or its result is rejected by the policy
+     * @param context
+     *   the context of the next retry, with the last error or the last result
+     * @param error
+     *   the error or null if the result is rejected
+     * @param duration
+     *   the duration of the call
+     */
+    default void onAttemptFailure(RetryContext<? extends T> context, Throwable error, Duration duration) {}
+    
+    /**
+     * Invoked when the next call is delayed
+     * @param context
+     *   the context of the next retry
+     * @param delay
+     *   the backoff delay
+     */
+    default void onBackoff(RetryContext<? extends T> context, Duration delay) {}
+    
+    /**
+     * Invoked when the retry process is stopped without the valid result
+     * @param context
+     *   the context of the last retry
+     * @param reason
+     *   the reason to stop
+     */
+    default void onGiveUp(RetryContext<? extends T> context, GiveUpReason reason) {}
+    
+    /**
+     * Invoked when the call produced the valid result
+     * @param context
+     *   the context of the successful call
+     * @param result
+     *   the result
+     * @param duration
+     *   the duration of the call
+     */
+    default void onSuccess(RetryContext<? extends T> context, T result, Duration duration) {}
+}
@@ -27,6 +27,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -38,7 +39,13 @@ public class RetryPolicy<T> {
         Duration timeout();
     }
     
-    protected static final Verdict DONT_RETRY = new Verdict() {
+    static final class NegativeVerdict implements Verdict {
+        final RetryListener.GiveUpReason reason;
+        
+        private NegativeVerdict(RetryListener.GiveUpReason reason) {
+            this.reason = reason;
+        }
+        
         @Override
         public boolean shouldExecute() { return false; }
 
@@ -47,7 +54,12 @@ public class RetryPolicy<T> {
         
         @Override
         public Duration timeout() { return Timeouts.NEGATIVE_DURATION; }
-    }; 
+    }
+    
+    protected static final Verdict DONT_RETRY = new NegativeVerdict(RetryListener.GiveUpReason.NOT_RETRYABLE);
+    
+    private static final Verdict TOO_MANY_RETRIES = new NegativeVerdict(RetryListener.GiveUpReason.MAX_RETRIES_EXCEEDED);
+    private static final Verdict OVER_RETRY_BUDGET = new NegativeVerdict(RetryListener.GiveUpReason.RETRY_BUDGET_EXHAUSTED);
     
     protected static final class PositiveVerdict implements Verdict {
         private final Duration backoffDelay;
@@ -69,6 +81,61 @@ public class RetryPolicy<T> {
         
     }
     
+    private static enum Classification {
+        RETRY, ABORT, UNKNOWN
+    }
+    
+    /**
+     * Optional settings of the policy kept together, so the protected constructor doesn't change 
+     * when the new setting is added. Instances are immutable, subclasses pass them from 
+     * {@link RetryPolicy#getOptions()} to the constructor.
+     *
+     * @param <T>
+     *   a type of the result
+     */
+    protected static final class Options<T> {
+        private static final Options<Object> DEFAULTS = new Options<>(null, null, false, null);
+        
+        final RetryBudget retryBudget;
+        final CircuitBreaker circuitBreaker;
+        final boolean matchCauses;
+        final RetryListener<? super T> listener;
+        
+        private Options(RetryBudget retryBudget,
+                        CircuitBreaker circuitBreaker,
+                        boolean matchCauses,
+                        RetryListener<? super T> listener) {
+            this.retryBudget = retryBudget;
+            this.circuitBreaker = circuitBreaker;
+            this.matchCauses = matchCauses;
+            this.listener = listener;
+        }
+        
+        @SuppressWarnings("unchecked")
+        static <T> Options<T> defaults() {
+            return (Options<T>)DEFAULTS;
+        }
+        
+        Options<T> withRetryBudget(RetryBudget retryBudget) {
+            return new Options<>(retryBudget, circuitBreaker, matchCauses, listener);
+        }
+        
+        Options<T> withCircuitBreaker(CircuitBreaker circuitBreaker) {
+            return new Options<>(retryBudget, circuitBreaker, matchCauses, listener);
+        }
+
+        Options<T> withMatchCauses(boolean matchCauses) {
+            return new Options<>(retryBudget, circuitBreaker, matchCauses, listener);
+        }
+        
+        Options<T> withListener(RetryListener<? super T> listener) {
+            return new Options<>(retryBudget, circuitBreaker, matchCauses, listener);
+        }
+    }
+    
+    // Protection against too long or cyclic cause chains
+    private static final int MAX_CAUSE_DEPTH = 16;
+    
     private static final Predicate<RetryContext<Object>> PREDICATE_FALSE = ctx -> false;
     
     public static final Predicate<Object> ACCEPT_NULL_RESULT  = v -> true;
@@ -85,6 +152,13 @@ public class RetryPolicy<T> {
     private final Predicate<RetryContext<? extends T>> abortPredicate;
     private final DelayPolicy<? super T> backoff;
     private final DelayPolicy<? super T> timeout;
+    private final RetryBudget retryBudget;
+    private final CircuitBreaker circuitBreaker;
+    private final boolean matchCauses;
+    private final RetryListener<? super T> listener;
+    private final Options<T> options;
+    // Verdicts per concrete throwable class, computed once per policy
+    private final ClassValue<Classification> classification;
 
     @SafeVarargs
     public final RetryPolicy<T> retryOn(Class<? extends Throwable>... retryOnThrowables) {
@@ -93,7 +167,7 @@ public class RetryPolicy<T> {
     
     public RetryPolicy<T> retryOn(Collection<Class<? extends Throwable>> retryOnThrowables) {
         return new RetryPolicy<T>(maxRetries, resultValidator,
-                                  setPlusElems(retryOn, retryOnThrowables), abortOn, retryPredicate, abortPredicate, backoff, timeout);
+                                  setPlusElems(retryOn, retryOnThrowables), abortOn, retryPredicate, abortPredicate, backoff, timeout, options);
     }
 
     @SafeVarargs
@@ -103,78 +177,165 @@ public class RetryPolicy<T> {
 
     public RetryPolicy<T> abortOn(Collection<Class<? extends Throwable>> abortOnThrowables) {
         return new RetryPolicy<>(maxRetries, resultValidator, 
-                                 retryOn, setPlusElems(abortOn, abortOnThrowables), retryPredicate, abortPredicate, backoff, timeout);
+                                 retryOn, setPlusElems(abortOn, abortOnThrowables), retryPredicate, abortPredicate, backoff, timeout, options);
     }
     
     
     public RetryPolicy<T> abortIf(Predicate<RetryContext<? extends T>> abortPredicate) {
         return new RetryPolicy<>(maxRetries, resultValidator,
-                                 retryOn, abortOn, retryPredicate, this.abortPredicate.or(abortPredicate), backoff, timeout);
+                                 retryOn, abortOn, retryPredicate, this.abortPredicate.or(abortPredicate), backoff, timeout, options);
     }
 
     public RetryPolicy<T> retryIf(Predicate<RetryContext<? extends T>> retryPredicate) {
         return new RetryPolicy<>(maxRetries, resultValidator,
-                                 retryOn, abortOn, this.retryPredicate.or(retryPredicate), abortPredicate, backoff, timeout);
+                                 retryOn, abortOn, this.retryPredicate.or(retryPredicate), abortPredicate, backoff, timeout, options);
     }
 
     public RetryPolicy<T> withoutAbortRules() {
         return new RetryPolicy<>(maxRetries, resultValidator,
-                                 retryOn, Collections.emptySet(), retryPredicate, predicateFalse(), backoff, timeout);
+                                 retryOn, Collections.emptySet(), retryPredicate, predicateFalse(), backoff, timeout, options);
     }
     
     public RetryPolicy<T> withoutRetryRules() {
         return new RetryPolicy<>(maxRetries, resultValidator,
-                                 Collections.emptySet(), abortOn, predicateFalse(), abortPredicate, backoff, timeout);
+                                 Collections.emptySet(), abortOn, predicateFalse(), abortPredicate, backoff, timeout, options);
     }
     
     public RetryPolicy<T> retryOnce() {
         return new RetryPolicy<T>(0, resultValidator,
-                                  retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout);
+                                  retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options);
     }
     
     public RetryPolicy<T> retryInfinitely() {
         return new RetryPolicy<>(-1, resultValidator,
-                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout);
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options);
     }
 
     public RetryPolicy<T> withMaxRetries(int maxRetries) {
         return new RetryPolicy<>(maxRetries, resultValidator,
-                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout);
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options);
     }
     
     public RetryPolicy<T> acceptNullResult() {
         return new RetryPolicy<>(maxRetries, ACCEPT_NULL_RESULT,
-                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout);
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options);
     }
     
     public RetryPolicy<T> rejectNullResult() {
         return new RetryPolicy<>(maxRetries, REJECT_NULL_RESULT,
-                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout);
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options);
     }
     
     public RetryPolicy<T> withResultValidator(Predicate<? super T> resultValidator) {
         return new RetryPolicy<>(maxRetries, resultValidator,
-                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout);
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options);
     }
     
     public RetryPolicy<T> withBackoff(DelayPolicy<? super T> backoff) {
         return new RetryPolicy<>(maxRetries, resultValidator,
-                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout);
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options);
     }
     
     public RetryPolicy<T> withoutBackoff() {
         return new RetryPolicy<>(maxRetries, resultValidator,
-                                 retryOn, abortOn, retryPredicate, abortPredicate, DelayPolicy.INVALID, timeout);
+                                 retryOn, abortOn, retryPredicate, abortPredicate, DelayPolicy.INVALID, timeout, options);
     }
     
     public RetryPolicy<T> withTimeout(DelayPolicy<? super T> timeout) {
         return new RetryPolicy<>(maxRetries, resultValidator,
-                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout);
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options);
     }
 
     public RetryPolicy<T> withoutTimeout() {
         return new RetryPolicy<>(maxRetries, resultValidator,
-                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, DelayPolicy.INVALID);
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, DelayPolicy.INVALID, options);
+    }
+
+    /**
+     * Limits retries of all calls made with the resulting policy by the shared {@link RetryBudget}
+     * @param ratio
+     *   a number of retries allowed per every first attempt, like 0.1 for 10% of extra load
+     * @param minRetriesPerSecond
+     *   a number of retries per second allowed regardless of the ratio
+     * @return
+     *   a new policy with the retry budget
+     */
+    public RetryPolicy<T> withRetryBudget(double ratio, int minRetriesPerSecond) {
+        return withRetryBudget(new RetryBudget(ratio, minRetriesPerSecond));
+    }
+
+    public RetryPolicy<T> withRetryBudget(RetryBudget retryBudget) {
+        return new RetryPolicy<>(maxRetries, resultValidator,
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options.withRetryBudget(retryBudget));
+    }
+
+    public RetryPolicy<T> withoutRetryBudget() {
+        return new RetryPolicy<>(maxRetries, resultValidator,
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options.withRetryBudget(null));
+    }
+
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Guards all calls made with the resulting policy by the {@link CircuitBreaker}: while the breaker
+     * is open the operation fails immediately with {@link CircuitBreakerOpenException}. The breaker may
+     * be shared by many policies.
+     * @param circuitBreaker
+     *   a circuit breaker to use
+     * @return
+     *   a new policy with the circuit breaker
+     */
+    public RetryPolicy<T> withCircuitBreaker(CircuitBreaker circuitBreaker) {
+        return new RetryPolicy<>(maxRetries, resultValidator,
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options.withCircuitBreaker(circuitBreaker));
+    }
+
+    public RetryPolicy<T> withoutCircuitBreaker() {
+        return new RetryPolicy<>(maxRetries, resultValidator,
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options.withCircuitBreaker(null));
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    /**
+     * Classify errors by the whole cause chain rather than by the error itself, for example 
+     * to retry on <code>SocketTimeoutException</code> wrapped into <code>CompletionException</code>.
+     * The error is not retryable if any error in the chain matches {@link #abortOn(Class...)} rules, 
+     * otherwise it's retryable if any error in the chain matches {@link #retryOn(Class...)} rules.
+     * @return
+     *   the new policy that matches errors by the cause chain
+     */
+    public RetryPolicy<T> withCauseMatching() {
+        return new RetryPolicy<>(maxRetries, resultValidator,
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options.withMatchCauses(true));
+    }
+    
+    public RetryPolicy<T> withoutCauseMatching() {
+        return new RetryPolicy<>(maxRetries, resultValidator,
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options.withMatchCauses(false));
+    }
+
+    public RetryPolicy<T> withListener(RetryListener<? super T> listener) {
+        return new RetryPolicy<>(maxRetries, resultValidator,
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, 
+                                 options.withListener(Objects.requireNonNull(listener, "listener")));
+    }
+    
+    public RetryPolicy<T> withoutListener() {
+        return new RetryPolicy<>(maxRetries, resultValidator,
+                                 retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, options.withListener(null));
+    }
+    
+    public RetryListener<? super T> getListener() {
+        return listener;
+    }
+    
+    protected Options<T> getOptions() {
+        return options;
     }
 
     public RetryPolicy(int maxRetries, 
@@ -185,6 +346,18 @@ public class RetryPolicy<T> {
                        Predicate<RetryContext<? extends T>> abortPredicate, 
                        DelayPolicy<? super T> backoff,
                        DelayPolicy<? super T> timeout) {
+        this(maxRetries, resultValidator, retryOn, abortOn, retryPredicate, abortPredicate, backoff, timeout, Options.defaults());
+    }
+
+    protected RetryPolicy(int maxRetries, 
+                          Predicate<? super T> resultValidator, 
+                          Set<Class<? extends Throwable>> retryOn, 
+                          Set<Class<? extends Throwable>> abortOn, 
+                          Predicate<RetryContext<? extends T>> retryPredicate, 
+                          Predicate<RetryContext<? extends T>> abortPredicate, 
+                          DelayPolicy<? super T> backoff,
+                          DelayPolicy<? super T> timeout,
+                          Options<T> options) {
         
         this.maxRetries = maxRetries;
         this.resultValidator = resultValidator;
@@ -194,6 +367,18 @@ public class RetryPolicy<T> {
         this.abortPredicate = abortPredicate;
         this.backoff = backoff;
         this.timeout = timeout;
+        this.options = options;
+        // Copied to fields since they are read on every attempt
+        this.retryBudget = options.retryBudget;
+        this.circuitBreaker = options.circuitBreaker;
+        this.matchCauses = options.matchCauses;
+        this.listener = options.listener;
+        this.classification = new ClassValue<Classification>() {
+            @Override
+            protected Classification computeValue(Class<?> type) {
+                return classify(type);
+            }
+        };
     }
 
     public RetryPolicy() {
@@ -260,7 +445,7 @@ public class RetryPolicy<T> {
     protected Verdict shouldContinue(RetryContext<? extends T> context) {
         final boolean result;
         if (tooManyRetries(context)) {
-            result = false;
+            return TOO_MANY_RETRIES;
         } else if (abortPredicate.test(context)) {
             result = false;
         } else if (retryPredicate.test(context)) {
@@ -268,22 +453,63 @@ public class RetryPolicy<T> {
         } else {
             result = exceptionClassRetryable(context);
         }
-        return result ? new PositiveVerdict(backoff.delay(context), timeout.delay(context)) : DONT_RETRY;
+        if (!result) {
+            return DONT_RETRY;
+        }
+        return withinRetryBudget(context) ? new PositiveVerdict(backoff.delay(context), timeout.delay(context)) : OVER_RETRY_BUDGET;
     }
 
     protected boolean exceptionClassRetryable(RetryContext<?> context) {
         if (context.getLastError() == null) {
             return true;
         }
-        final Class<? extends Throwable> e = context.getLastError().getClass();
-        return !matches(e, abortOn) && matches(e, retryOn); 
+        Throwable error = context.getLastError();
+        if (!matchCauses) {
+            return classification.get(error.getClass()) == Classification.RETRY;
+        }
+        boolean retry = false;
+        for (int depth = 0; null != error && depth < MAX_CAUSE_DEPTH; depth++) {
+            switch (classification.get(error.getClass())) {
+                case ABORT:
+                    return false;
+                case RETRY:
+                    retry = true;
+                    break;
+                default:
+            }
+            Throwable cause = error.getCause();
+            error = cause == error ? null : cause;
+        }
+        return retry;
+    }
+    
+    private Classification classify(Class<?> type) {
+        if (matches(type, abortOn)) {
+            return Classification.ABORT;
+        } else if (matches(type, retryOn)) {
+            return Classification.RETRY;
+        } else {
+            return Classification.UNKNOWN;
+        }
+    }
+    
+    private boolean withinRetryBudget(RetryContext<?> context) {
+        if (null == retryBudget) {
+            return true;
+        } else if (context.getRetryCount() == 0) {
+            // First attempt is never denied, it just funds the budget
+            retryBudget.deposit();
+            return true;
+        } else {
+            return retryBudget.tryWithdraw();
+        }
     }
     
     private boolean tooManyRetries(RetryContext<?> context) {
         return maxRetries >= 0 && context.getRetryCount() > maxRetries;
     }
 
-    private static boolean matches(Class<? extends Throwable> throwable, Set<Class<? extends Throwable>> set) {
+    private static boolean matches(Class<?> throwable, Set<Class<? extends Throwable>> set) {
         return set.stream().anyMatch(c -> c.isAssignableFrom(throwable));
     }
 
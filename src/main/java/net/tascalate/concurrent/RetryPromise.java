@@ -0,0 +1,324 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import net.tascalate.concurrent.core.ControlFlowExceptions;
+
+/**
+ * Retry engine behind {@link Promises#retryFuture(RetryCallable, RetryPolicy)}: a single mutable state object
+ * that drives attempts directly through callbacks. Events (attempt settled, backoff elapsed) are processed by
+ * a trampoline, so synchronously completed attempts neither grow the stack nor need intermediate stages.
+ */
+class RetryPromise<T extends C, C> extends CompletableFutureWrapper<T> {
+    private static final int START           = 0;
+    private static final int ATTEMPT_SETTLED = 1;
+    private static final int BACKOFF_ELAPSED = 2;
+    
+    private final Function<? super RetryContext<C>, ? extends Promise<T>> futureFactory;
+    private final RetryPolicy<? super C> retryPolicy;
+    private final CircuitBreaker breaker;
+    // Null when there is no listener, so events cost nothing
+    private final RetryListener<? super C> listener;
+    
+    private final AtomicInteger wip = new AtomicInteger();
+    // Number of the attempt in progress, zero when there is no attempt or it's already settled
+    private final AtomicInteger activeAttempt = new AtomicInteger();
+    
+    private final Runnable onBackoffElapsed = this::hop;
+    private final BiConsumer<Object, Throwable> onHop = (r, e) -> resume(BACKOFF_ELAPSED);
+    
+    // Accessed only by the thread that runs the trampoline
+    private RetryContext<C> ctx = RetryContext.initial();
+    private Duration timeout;
+    private Duration backoff = Duration.ZERO;
+    private int attempts;
+    // Breaker permission is acquired for the attempt in progress and not reported yet
+    private boolean permitHeld;
+    
+    // Published before wip increment, read by the thread that runs the trampoline
+    private int pendingEvent;
+    private T pendingValue;
+    private Throwable pendingError;
+    private long pendingDuration;
+    
+    private volatile Promise<T> currentAttempt;
+    private volatile Future<?> currentTimer;
+    
+    RetryPromise(Function<? super RetryContext<C>, ? extends Promise<T>> futureFactory, 
+                 RetryPolicy<? super C> retryPolicy) {
+        this.futureFactory = futureFactory;
+        this.retryPolicy   = retryPolicy;
+        this.breaker       = retryPolicy.getCircuitBreaker();
+        this.listener      = listenerOf(retryPolicy);
+    }
+    
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (super.cancel(mayInterruptIfRunning)) {
+            Future<?> timer = currentTimer;
+            if (null != timer) {
+                timer.cancel(false);
+            }
+            Promise<T> attempt = currentAttempt;
+            if (null != attempt) {
+                SharedFunctions.cancelPromise(attempt, mayInterruptIfRunning);
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+    
+    void start() {
+        resume(START);
+    }
+    
+    private void resume(int event) {
+        pendingEvent = event;
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            try {
+                handle(pendingEvent);
+            } catch (Throwable ex) {
+                failure(ex);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+    
+    private void handle(int event) {
+        if (isDone()) {
+            // Cancelled, the outcome of the abandoned attempt is not reported
+            releasePermission();
+            return;
+        }
+        switch (event) {
+            case START:
+                next(retryPolicy.shouldContinue(ctx));
+                break;
+            case ATTEMPT_SETTLED:
+                T value = pendingValue;
+                Throwable error = pendingError;
+                Duration duration = Duration.ofNanos(pendingDuration);
+                pendingValue = null;
+                pendingError = null;
+                if (permitHeld) {
+                    permitHeld = false;
+                    if (null == error) {
+                        breaker.onSuccess(duration);
+                    } else {
+                        breaker.onFailure(duration, error);
+                    }
+                }
+                if (null == error) {
+                    if (retryPolicy.acceptResult(value)) {
+                        if (null != listener) {
+                            fireSuccess(value, duration);
+                        }
+                        success(value);
+                        return;
+                    }
+                    ctx = ctx.nextRetry(duration, backoff, value);
+                } else {
+                    error = SharedFunctions.unwrapCompletionException(error);
+                    ctx = ctx.nextRetry(duration, backoff, error);
+                }
+                if (null != listener) {
+                    fireAttemptFailure(error, duration);
+                }
+                next(retryPolicy.shouldContinue(ctx));
+                break;
+            case BACKOFF_ELAPSED:
+                attempt();
+                break;
+        }
+    }
+    
+    private void next(RetryPolicy.Verdict verdict) {
+        if (!verdict.shouldExecute()) {
+            if (null != listener) {
+                fireGiveUp(verdict instanceof RetryPolicy.NegativeVerdict ? 
+                           ((RetryPolicy.NegativeVerdict)verdict).reason : RetryListener.GiveUpReason.NOT_RETRYABLE);
+            }
+            failure(ctx.asFailure());
+            return;
+        }
+        timeout = verdict.timeout();
+        Duration nextBackoff = verdict.backoffDelay();
+        if (DelayPolicy.isValid(nextBackoff)) {
+            backoff = nextBackoff;
+            if (null != listener) {
+                fireBackoff(nextBackoff);
+            }
+            currentTimer = Timeouts.schedule(onBackoffElapsed, nextBackoff);
+            if (isDone()) {
+                // Race with cancellation
+                currentTimer.cancel(false);
+            }
+        } else {
+            backoff = Duration.ZERO;
+            attempt();
+        }
+    }
+    
+    private void hop() {
+        // Timer thread should not run the next attempt, 
+        // continue on the default executor of the previous attempt like 
+        // Promise.delay does
+        Promise<T> previous = currentAttempt;
+        if (isDone()) {
+            return;
+        } else if (null != previous) {
+            previous.whenCompleteAsync(onHop);
+        } else {
+            resume(BACKOFF_ELAPSED);
+        }
+    }
+    
+    private void attempt() {
+        if (null != breaker && !breaker.tryAcquirePermission()) {
+            // Fail fast without calling the target
+            if (null != listener) {
+                fireGiveUp(RetryListener.GiveUpReason.CIRCUIT_BREAKER_OPEN);
+            }
+            failure(new CircuitBreakerOpenException(
+                breaker.getState(), ctx.getRetryCount(), ctx.getLastCallDuration(), ctx.getLastError()
+            ));
+            return;
+        }
+        permitHeld = null != breaker;
+        if (null != listener) {
+            fireAttemptStart();
+        }
+        int attemptNo = ++attempts;
+        activeAttempt.set(attemptNo);
+        long startTime = System.nanoTime();
+        
+        Promise<T> target;
+        try {
+            target = futureFactory.apply(ctx);
+        } catch (Throwable ex) {
+            if (permitHeld) {
+                permitHeld = false;
+                breaker.onFailure(Duration.ofNanos(System.nanoTime() - startTime), ex);
+            }
+            throw ex;
+        }
+        currentAttempt = target;
+        if (isDone()) {
+            // Race with cancellation
+            SharedFunctions.cancelPromise(target, true);
+            releasePermission();
+            return;
+        }
+        
+        Future<?> timeoutTimer;
+        Duration attemptTimeout = timeout;
+        if (DelayPolicy.isValid(attemptTimeout)) {
+            timeoutTimer = Timeouts.schedule(() -> {
+                if (activeAttempt.compareAndSet(attemptNo, 0)) {
+                    // Claimed before cancellation, so the completion callback ignores CancellationException
+                    SharedFunctions.cancelPromise(target, true);
+                    publish(null, ControlFlowExceptions.timeout("Timeout after " + attemptTimeout), startTime);
+                }
+            }, attemptTimeout);
+        } else {
+            timeoutTimer = null;
+        }
+        target.whenComplete((r, e) -> {
+            if (null != timeoutTimer) {
+                timeoutTimer.cancel(false);
+            }
+            settle(attemptNo, r, e, startTime);
+        });
+    }
+    
+    private void releasePermission() {
+        if (permitHeld) {
+            permitHeld = false;
+            breaker.releasePermission();
+        }
+    }
+    
+    // Listener methods are called only when the listener is set, exceptions are ignored
+    private void fireAttemptStart() {
+        try {
+            listener.onAttemptStart(ctx);
+        } catch (Throwable ex) {
+            // Ignore
+        }
+    }
+    
+    private void fireAttemptFailure(Throwable error, Duration duration) {
+        try {
+            listener.onAttemptFailure(ctx, error, duration);
+        } catch (Throwable ex) {
+            // Ignore
+        }
+    }
+
+    private void fireBackoff(Duration delay) {
+        try {
+            listener.onBackoff(ctx, delay);
+        } catch (Throwable ex) {
+            // Ignore
+        }
+    }
+    
+    private void fireGiveUp(RetryListener.GiveUpReason reason) {
+        try {
+            listener.onGiveUp(ctx, reason);
+        } catch (Throwable ex) {
+            // Ignore
+        }
+    }
+    
+    private void fireSuccess(T value, Duration duration) {
+        try {
+            listener.onSuccess(ctx, value, duration);
+        } catch (Throwable ex) {
+            // Ignore
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <C> RetryListener<? super C> listenerOf(RetryPolicy<? super C> retryPolicy) {
+        return (RetryListener<? super C>)retryPolicy.getListener();
+    }
+    
+    private void settle(int attemptNo, T value, Throwable error, long startTime) {
+        if (activeAttempt.compareAndSet(attemptNo, 0)) {
+            publish(value, error, startTime);
+        }
+        // Otherwise timed out already
+    }
+    
+    private void publish(T value, Throwable error, long startTime) {
+        pendingValue    = value;
+        pendingError    = error;
+        pendingDuration = System.nanoTime() - startTime;
+        resume(ATTEMPT_SETTLED);
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>{@link RetryListener} that aggregates counters and latency histograms of the retry process.
+ * Histograms have power-of-two buckets by nanoseconds, so percentiles are approximate (up to 2x).
+ * <p>Instances are thread-safe and may be shared by any number of policies; use {@link #named(String)} 
+ * to get the statistics registered per policy name. Registration is opt-in: instances created via 
+ * the constructor are not registered, while registered ones are kept until {@link #unregister(String)}, 
+ * so policies with dynamic names should either use the constructor or unregister their statistics.
+ */
+public class RetryStatistics implements RetryListener<Object> {
+    private static final ConcurrentMap<String, RetryStatistics> REGISTRY = new ConcurrentHashMap<>();
+    
+    private static final int BUCKETS = 64;
+    
+    private final String name;
+    private final LongAdder attempts  = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures  = new LongAdder();
+    private final LongAdder backoffs  = new LongAdder();
+    private final LongAdder backoffNanos = new LongAdder();
+    private final LongAdder[] giveUps = newAdders(GiveUpReason.values().length);
+    private final LongAdder[] attemptLatency = newAdders(BUCKETS);
+    private final LongAdder[] backoffLatency = newAdders(BUCKETS);
+
+    public RetryStatistics(String name) {
+        this.name = Objects.requireNonNull(name, "name");
+    }
+    
+    /**
+     * Returns the statistics registered for the name, creating it when necessary
+     * @param name
+     *   the name of the policy
+     * @return
+     *   the statistics
+     */
+    public static RetryStatistics named(String name) {
+        return REGISTRY.computeIfAbsent(name, RetryStatistics::new);
+    }
+    
+    /**
+     * Removes the statistics registered for the name; policies that already use it keep updating it,
+     * while the next {@link #named(String)} call registers the new instance
+     * @param name
+     *   the name of the policy
+     * @return
+     *   true if the statistics was registered
+     */
+    public static boolean unregister(String name) {
+        return null != REGISTRY.remove(name);
+    }
+    
+    @Override
+    public void onAttemptStart(RetryContext<?> context) {
+        attempts.increment();
+    }
+    
+    @Override
+    public void onAttemptFailure(RetryContext<?> context, Throwable error, Duration duration) {
+        failures.increment();
+        record(attemptLatency, duration);
+    }
+    
+    @Override
+    public void onBackoff(RetryContext<?> context, Duration delay) {
+        backoffs.increment();
+        backoffNanos.add(toNanos(delay));
+        record(backoffLatency, delay);
+    }
+    
+    @Override
+    public void onGiveUp(RetryContext<?> context, GiveUpReason reason) {
+        giveUps[reason.ordinal()].increment();
+    }
+    
+    @Override
+    public void onSuccess(RetryContext<?> context, Object result, Duration duration) {
+        successes.increment();
+        record(attemptLatency, duration);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public long getAttempts() {
+        return attempts.sum();
+    }
+    
+    public long getSuccesses() {
+        return successes.sum();
+    }
+    
+    public long getFailures() {
+        return failures.sum();
+    }
+    
+    public long getBackoffs() {
+        return backoffs.sum();
+    }
+    
+    public Duration getTotalBackoff() {
+        return Duration.ofNanos(backoffNanos.sum());
+    }
+    
+    public long getGiveUps() {
+        long result = 0;
+        for (LongAdder a : giveUps) {
+            result += a.sum();
+        }
+        return result;
+    }
+    
+    public long getGiveUps(GiveUpReason reason) {
+        return giveUps[reason.ordinal()].sum();
+    }
+    
+    /**
+     * Approximate percentile of the call duration, both successful and failed
+     * @param percentile
+     *   the percentile in range (0, 100]
+     * @return
+     *   the upper bound of the histogram bucket that contains the percentile
+     */
+    public Duration getAttemptLatencyPercentile(double percentile) {
+        return percentile(attemptLatency, percentile);
+    }
+    
+    public Duration getBackoffPercentile(double percentile) {
+        return percentile(backoffLatency, percentile);
+    }
+    
+    public void reset() {
+        attempts.reset();
+        successes.reset();
+        failures.reset();
+        backoffs.reset();
+        backoffNanos.reset();
+        reset(giveUps);
+        reset(attemptLatency);
+        reset(backoffLatency);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(
+            "%s[name=%s, attempts=%d, successes=%d, failures=%d, backoffs=%d, giveUps=%d, p50=%s, p99=%s]", 
+            getClass().getSimpleName(), name, getAttempts(), getSuccesses(), getFailures(), getBackoffs(), getGiveUps(),
+            getAttemptLatencyPercentile(50), getAttemptLatencyPercentile(99)
+        );
+    }
+    
+    private static void record(LongAdder[] histogram, Duration duration) {
+        long nanos = toNanos(duration);
+        int bucket = nanos <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(nanos);
+        histogram[Math.min(bucket, BUCKETS - 1)].increment();
+    }
+    
+    private static Duration percentile(LongAdder[] histogram, double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in range (0, 100] but was: " + percentile);
+        }
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+        long threshold = (long)Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= threshold) {
+                // Bucket i holds values in range [2^(i-1), 2^i)
+                return Duration.ofNanos(i >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+            }
+        }
+        return Duration.ofNanos(Long.MAX_VALUE);
+    }
+    
+    private static long toNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+    
+    private static LongAdder[] newAdders(int size) {
+        LongAdder[] result = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = new LongAdder();
+        }
+        return result;
+    }
+    
+    private static void reset(LongAdder[] adders) {
+        for (LongAdder a : adders) {
+            a.reset();
+        }
+    }
+}
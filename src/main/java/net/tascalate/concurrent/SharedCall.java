@@ -0,0 +1,60 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * The single asynchronous call shared by several callers, see {@link SingleFlight} and {@link AsyncLoadingCache}.
+ * Cancelling the call cancels the stage returned by the function that started it.
+ *
+ * @param <V>
+ *   a type of the result
+ */
+final class SharedCall<V> extends CompletableFutureWrapper<V> {
+    private volatile CompletionStage<V> source;
+    
+    <K> void start(K key, Function<? super K, ? extends CompletionStage<V>> call) {
+        CompletionStage<V> stage;
+        try {
+            stage = call.apply(key);
+        } catch (Throwable ex) {
+            failure(ex);
+            return;
+        }
+        source = stage;
+        if (isCancelled()) {
+            // Race with cancellation
+            SharedFunctions.cancelPromise(stage, true);
+        } else {
+            stage.whenComplete(this::complete);
+        }
+    }
+    
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (super.cancel(mayInterruptIfRunning)) {
+            CompletionStage<V> stage = source;
+            if (null != stage) {
+                SharedFunctions.cancelPromise(stage, mayInterruptIfRunning);
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+}
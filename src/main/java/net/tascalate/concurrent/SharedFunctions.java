@@ -26,6 +26,7 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 import net.tascalate.concurrent.core.CancelMethodsCache;
+import net.tascalate.concurrent.core.ControlFlowExceptions;
 
 class SharedFunctions {
     
@@ -43,7 +44,7 @@ class SharedFunctions {
         if (e instanceof CompletionException) {
             return (CompletionException) e;
         } else {
-            return new CompletionException(e);
+            return ControlFlowExceptions.completion(e);
         }
     }
     
@@ -70,7 +71,11 @@ class SharedFunctions {
     }
 
     static boolean cancelPromise(CompletionStage<?> promise, boolean mayInterruptIfRunning) {
-        if (promise instanceof Future) {
+        if (CancellationScope.isCancellationDeferred(promise)) {
+            // Will be cancelled by the flat pass of the scope; reported as cancelled 
+            // while the pass may still find the stage completed normally
+            return true;
+        } else if (promise instanceof Future) {
             Future<?> future = (Future<?>) promise;
             return future.cancel(mayInterruptIfRunning);
         } else {
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+/**
+ * <p>Multicast handle of the {@link Promise} shared between several consumers, created via {@link Promise#share()}.
+ * <p>Every consumer should take its own {@link #fork()}: forks are resolved with the result of the origin 
+ * promise and may be cancelled independently. Cancelling a fork doesn't affect other forks, while the origin 
+ * is cancelled once all forks taken so far are cancelled. The number of forks is tracked with lock-free 
+ * reference counting, so the same expensive computation may be safely reused by independent callers.
+ * <p>Forks are counted per handle: handles created by separate {@link Promise#share()} calls on the same 
+ * origin don't know about each other, and any of them cancels the origin once its own forks are cancelled.
+ * 
+ * @param <T>
+ *   a type of the successfully resolved promise value
+ */
+public final class SharedPromise<T> {
+    private final RefCountedPromise<T> shared;
+    
+    SharedPromise(Promise<T> origin) {
+        this.shared = new RefCountedPromise<>(origin);
+    }
+    
+    /**
+     * Creates the new fork of the origin promise
+     * @return
+     *   the fork resolved with the result of the origin promise or the already cancelled promise 
+     *   if the origin was cancelled because all previous forks were cancelled
+     */
+    public Promise<T> fork() {
+        Promise<T> fork = shared.fork();
+        if (null == fork) {
+            CompletableFutureWrapper<T> cancelled = new CompletableFutureWrapper<>();
+            cancelled.cancel(true);
+            return cancelled;
+        } else {
+            return fork;
+        }
+    }
+    
+    /**
+     * Number of forks that are not cancelled
+     * @return
+     *   the number of forks
+     */
+    public int forks() {
+        return shared.forks();
+    }
+    
+    /**
+     * Checks whether the origin promise was cancelled because all of its forks were cancelled
+     * @return
+     *   true if the origin was cancelled by the forks, false otherwise
+     */
+    public boolean isCancelled() {
+        return shared.closed();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s[forks=%d, origin=%s]", getClass().getSimpleName(), forks(), shared.origin());
+    }
+}
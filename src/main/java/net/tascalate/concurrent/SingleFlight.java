@@ -0,0 +1,92 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * <p>Coalesces identical concurrent asynchronous calls: at most one call per key is in progress, 
+ * all concurrent callers with the same key get their own promise resolved with the result of this call.
+ * The key is released once the call is completed, so the next caller starts the new call.
+ * <p>Cancelling the promise returned to the caller cancels only this promise; the shared call is cancelled 
+ * when all callers cancel their promises.
+ * 
+ * @param <K>
+ *   a type of the keys
+ * @param <V>
+ *   a type of the results
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, RefCountedPromise<V>> flights = new ConcurrentHashMap<>();
+    
+    /**
+     * Joins the call in progress for the key or starts the new one
+     * @param key
+     *   the key of the call
+     * @param call
+     *   the function that starts the call for the key, invoked only when there is no call in progress
+     * @return
+     *   the promise resolved with the result of the call
+     */
+    public Promise<V> execute(K key, Function<? super K, ? extends CompletionStage<V>> call) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(call, "call");
+        while (true) {
+            RefCountedPromise<V> existing = flights.get(key);
+            if (null != existing) {
+                Promise<V> result = existing.fork();
+                if (null != result) {
+                    return result;
+                }
+                // All callers cancelled the call, start the new one
+                flights.remove(key, existing);
+                continue;
+            }
+            SharedCall<V> flight = new SharedCall<>();
+            RefCountedPromise<V> shared = new RefCountedPromise<>(flight);
+            if (null != flights.putIfAbsent(key, shared)) {
+                continue;
+            }
+            Promise<V> result = shared.fork();
+            flight.whenComplete((r, e) -> flights.remove(key, shared));
+            flight.start(key, call);
+            return result;
+        }
+    }
+    
+    /**
+     * @return
+     *   the number of the keys with calls in progress
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+    
+    /**
+     * @param key
+     *   the key of the call
+     * @return
+     *   the number of callers waiting for the call with the key, zero if there is no call in progress
+     */
+    public int callers(K key) {
+        RefCountedPromise<V> flight = flights.get(key);
+        return null == flight ? 0 : flight.forks();
+    }
+}
@@ -24,6 +24,8 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import net.tascalate.concurrent.core.ControlFlowExceptions;
+
 class Timeouts {
     
     static final Duration NEGATIVE_DURATION = Duration.ofNanos(-1);
@@ -65,6 +67,21 @@ class Timeouts {
     }
     */
     
+    /**
+     * Schedules the task to run after delay specified; lightweight alternative to {@link #delay(Duration)}
+     * when no promise is necessary
+     * @param task
+     * the task to run
+     * @param duration
+     * the delay
+     * @return
+     * the future to cancel the task
+     */
+    static Future<?> schedule(Runnable task, Duration duration) {
+        TimeMeasurment tm = new TimeMeasurment(duration);
+        return scheduler.schedule(task, tm.amount, tm.unit);
+    }
+    
     static <T> Promise<T> delayed(T value, Duration duration) {
         return delay(duration).dependent().thenApply(d -> value, true);        
     }
@@ -80,7 +97,7 @@ class Timeouts {
         TimeMeasurment tm = new TimeMeasurment(duration);
         CompletableFutureWrapper<T> result = new CompletableFutureWrapper<>();
         Future<?> timeout = scheduler.schedule(
-            () -> result.failure(new TimeoutException("Timeout after " + duration)), 
+            () -> result.failure(ControlFlowExceptions.timeout("Timeout after " + duration)), 
             tm.amount, tm.unit
         );
         return result.onCancel(() -> timeout.cancel(true));
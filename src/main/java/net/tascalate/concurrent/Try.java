@@ -17,15 +17,36 @@ package net.tascalate.concurrent;
 
 import java.time.Duration;
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
-abstract class Try<R> {
+import net.tascalate.concurrent.core.ControlFlowExceptions;
 
-    abstract R done();
-    abstract boolean isSuccess();
-    abstract boolean isCancel();
-    abstract Promise<R> asPromise();
+/**
+ * Result of the computation, either successful with the value or failed with the error.
+ * 
+ * @param <R>
+ *   a type of the value
+ */
+public abstract class Try<R> {
+    
+    Try() {}
+
+    /**
+     * Returns the value or throws the error, the error is wrapped 
+     * into {@link java.util.concurrent.CompletionException} unless it's an {@link Error} or 
+     * {@link CancellationException}
+     * @return
+     *   the value
+     */
+    public abstract R done();
+    /**
+     * @return
+     *   the error or null if the computation was successful 
+     */
+    public abstract Throwable error();
+    public abstract boolean isSuccess();
+    public abstract boolean isCancel();
+    public abstract Promise<R> asPromise();
     
     static final class Success<R> extends Try<R> {
         
@@ -36,22 +57,27 @@ abstract class Try<R> {
         }
         
         @Override
-        R done() {
+        public R done() {
             return result;
         }
         
         @Override
-        Promise<R> asPromise() {
+        public Throwable error() {
+            return null;
+        }
+        
+        @Override
+        public Promise<R> asPromise() {
             return Promises.success(result);
         }
         
         @Override
-        boolean isSuccess() {
+        public boolean isSuccess() {
             return true;
         }
         
         @Override
-        boolean isCancel() {
+        public boolean isCancel() {
             return false;
         }        
     }
@@ -65,7 +91,7 @@ abstract class Try<R> {
         }
         
         @Override
-        R done() {
+        public R done() {
             if (error instanceof Error) {
                 throw (Error)error;
             } else if (error instanceof CancellationException) {
@@ -76,28 +102,33 @@ abstract class Try<R> {
         }
         
         @Override
-        Promise<R> asPromise() {
+        public Throwable error() {
+            return error;
+        }
+        
+        @Override
+        public Promise<R> asPromise() {
             return Promises.failure(error);
         }
 
         @Override
-        boolean isSuccess() {
+        public boolean isSuccess() {
             return false;
         }
         
         @Override
-        boolean isCancel() {
+        public boolean isCancel() {
             Throwable ex = SharedFunctions.unwrapCompletionException(error);
             return ex instanceof CancellationException;
         }        
 
     }
     
-    static <R> Try<R> success(R result) {
+    public static <R> Try<R> success(R result) {
         return new Success<R>(result);
     }
 
-    static <R> Try<R> failure(Throwable error) {
+    public static <R> Try<R> failure(Throwable error) {
         return new Failure<R>(error);
     }
 
@@ -109,7 +140,7 @@ abstract class Try<R> {
     }
     
     static <T> Try<T> doneOrTimeout(Try<T> result, Duration duration) {
-        return null != result ? result : Try.failure(new TimeoutException("Timeout after " + duration));
+        return null != result ? result : Try.failure(ControlFlowExceptions.timeout("Timeout after " + duration));
     }
     
     static <R> Supplier<Try<R>> call(Supplier<? extends R> supplier) {
@@ -26,6 +26,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -39,69 +40,102 @@ public final class CancelMethodsCache {
     private CancelMethodsCache() {}
     
     public static Cancellation cancellationOf(Class<?> stageClass) {
-        return GET_CANCEL_METHOD_BY_CLASS.apply(stageClass);
+        return CANCEL_METHOD_BY_CLASS.get(stageClass);
+    }
+    
+    /**
+     * Exception used to cancel stages that are cancelled via <code>completeExceptionally</code>,
+     * see {@link ControlFlowExceptions#cancellation()}
+     * @return
+     *   the exception to complete the cancelled stage with
+     */
+    public static CancellationException cancellationException() {
+        return ControlFlowExceptions.cancellation();
     }
     
     private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
     
-    private static final Function<Class<?>, Cancellation> GET_CANCEL_METHOD_BY_CLASS = 
-        new FunctionMemoization<>(c -> {
-            
-            Cancellation NO_CANCELATION = (p, b) -> {
-                System.err.println("Cancellation is not supported for promise " + p);
-                return false;
-            };
-            
-            Stream<Function<Class<?>, ExceptionalCancellation>> options = Stream.of(
-                    CancelMethodsCache::cancelInterruptibleMethodOf,     
-                    CancelMethodsCache::cancelMethodOf,
-                    CancelMethodsCache::completeExceptionallyMethodOf
-                );
-                return options.map(option -> Optional.ofNullable( option.apply(c) ))
-                              .filter(Optional::isPresent)
-                              .map(Optional::get)
-                              .map(ExceptionalCancellation::unchecked)
-                              .findFirst()
-                              .orElse(NO_CANCELATION);
-        });
+    private static final Cancellation NO_CANCELATION = (p, b) -> {
+        System.err.println("Cancellation is not supported for promise " + p);
+        return false;
+    };
+    
+    // Covers CompletableFuture, Promise and all Future-based decorators without reflection
+    private static final Cancellation FUTURE_CANCELLATION = (p, b) -> ((Future<?>)p).cancel(b);
+    
+    // Lookup is a single read of the value attached to the class, 
+    // and the value doesn't prevent class unloading
+    private static final ClassValue<Cancellation> CANCEL_METHOD_BY_CLASS = new ClassValue<Cancellation>() {
+        @Override
+        protected Cancellation computeValue(Class<?> c) {
+            if (Future.class.isAssignableFrom(c)) {
+                return FUTURE_CANCELLATION;
+            }
+            Stream<Function<Class<?>, Cancellation>> options = Stream.of(
+                CancelMethodsCache::cancelInterruptibleMethodOf,     
+                CancelMethodsCache::cancelMethodOf,
+                CancelMethodsCache::completeExceptionallyMethodOf
+            );
+            return options.map(option -> Optional.ofNullable( option.apply(c) ))
+                          .filter(Optional::isPresent)
+                          .map(Optional::get)
+                          .findFirst()
+                          .orElse(NO_CANCELATION);
+        }
+    };
     
-    private static ExceptionalCancellation cancelInterruptibleMethodOf(Class<?> clazz) {
+    private static Cancellation cancelInterruptibleMethodOf(Class<?> clazz) {
         try {
             Method m = firstUnreflectableMethod( clazz.getMethod("cancel", boolean.class) );
             if (null == m) {
                 return null;
             }
             MethodHandle mh = unreflect(m).asType(MethodType.methodType(boolean.class, CompletionStage.class, boolean.class));            
-            return (p, b) -> (boolean)mh.invokeExact(p, b);
-            //return (p, b) -> (Boolean)m.invoke(p, b);
+            return (p, b) -> {
+                try {
+                    return (boolean)mh.invokeExact(p, b);
+                } catch (Throwable ex) {
+                    throw rethrow(ex);
+                }
+            };
         } catch (ReflectiveOperationException | SecurityException ex) {
             return null;
         }
     }
     
-    private static ExceptionalCancellation cancelMethodOf(Class<?> clazz) {
+    private static Cancellation cancelMethodOf(Class<?> clazz) {
         try {
             Method m = firstUnreflectableMethod( clazz.getMethod("cancel") );
             if (null == m) {
                 return null;
             }
             MethodHandle mh = unreflect(m).asType(MethodType.methodType(boolean.class, CompletionStage.class));
-            return (p, b) -> (boolean)mh.invokeExact(p);
-            //return (p, b) -> (Boolean)m.invoke(p);
+            return (p, b) -> {
+                try {
+                    return (boolean)mh.invokeExact(p);
+                } catch (Throwable ex) {
+                    throw rethrow(ex);
+                }
+            };
         } catch (ReflectiveOperationException | SecurityException ex) {
             return null;
         }
     }
     
-    private static ExceptionalCancellation completeExceptionallyMethodOf(Class<?> clazz) {
+    private static Cancellation completeExceptionallyMethodOf(Class<?> clazz) {
         try {
             Method m = firstUnreflectableMethod( clazz.getMethod("completeExceptionally", Throwable.class) );
             if (null == m) {
                 return null;
             }
             MethodHandle mh = unreflect(m).asType(MethodType.methodType(boolean.class, CompletionStage.class, CancellationException.class));
-            return (p, b) -> (boolean)mh.invokeExact(p, new CancellationException());
-            //return (p, b) -> (Boolean)m.invoke(p, new CancellationException());
+            return (p, b) -> {
+                try {
+                    return (boolean)mh.invokeExact(p, cancellationException());
+                } catch (Throwable ex) {
+                    throw rethrow(ex);
+                }
+            };
         } catch (ReflectiveOperationException | SecurityException ex) {
             return null;
         }
@@ -143,19 +177,13 @@ public final class CancelMethodsCache {
         return LOOKUP.unreflect(m);
     }
     
-    @FunctionalInterface
-    static interface ExceptionalCancellation {
-        boolean apply(CompletionStage<?> p, boolean b) throws Throwable;
-        default Cancellation unchecked() {
-            return (a, b) -> { 
-                try {
-                    return this.apply(a, b);
-                } catch (Error | RuntimeException ex) {
-                    throw ex;
-                } catch (Throwable ex) {
-                    throw new RuntimeException(ex);
-                }
-            };            
+    private static RuntimeException rethrow(Throwable ex) {
+        if (ex instanceof Error) {
+            throw (Error)ex;
+        } else if (ex instanceof RuntimeException) {
+            return (RuntimeException)ex;
+        } else {
+            return new RuntimeException(ex);
         }
     }
 }
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.core;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>Factory of exceptions that are created by the library itself to signal cancellation, timeouts and 
+ * wrapping of failures, rather than errors of the application code.
+ * <p>By default every exception is created with a stack trace. In the stackless mode exceptions are 
+ * created without stack traces, so cancellation and timeout storms do not spend CPU in 
+ * {@link Throwable#fillInStackTrace()}. Every call still returns a new instance, so suppressed exceptions
+ * and causes added by the application never leak to unrelated promises. 
+ * <p>The mode is enabled with the system property <code>net.tascalate.concurrent.stacklessExceptions=true</code>;
+ * the property is read once, when the class is initialized.
+ */
+public final class ControlFlowExceptions {
+    private static final boolean STACKLESS = Boolean.getBoolean("net.tascalate.concurrent.stacklessExceptions");
+    
+    private ControlFlowExceptions() {}
+    
+    public static boolean isStackless() {
+        return STACKLESS;
+    }
+    
+    public static CancellationException cancellation() {
+        return STACKLESS ? new StacklessCancellationException() : new CancellationException();
+    }
+    
+    public static TimeoutException timeout(String message) {
+        return STACKLESS ? new StacklessTimeoutException(message) : new TimeoutException(message);
+    }
+    
+    public static CompletionException completion(Throwable cause) {
+        return STACKLESS ? new StacklessCompletionException(cause) : new CompletionException(cause);
+    }
+    
+    static final class StacklessCancellationException extends CancellationException {
+        private static final long serialVersionUID = 1L;
+        
+        StacklessCancellationException() {
+            // No message, same as the regular cancellation
+            super();
+        }
+        
+        @Override
+        public Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+    
+    static final class StacklessTimeoutException extends TimeoutException {
+        private static final long serialVersionUID = 1L;
+        
+        StacklessTimeoutException(String message) {
+            super(message);
+        }
+        
+        @Override
+        public Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+    
+    static final class StacklessCompletionException extends CompletionException {
+        private static final long serialVersionUID = 1L;
+        
+        StacklessCompletionException(Throwable cause) {
+            super(null == cause ? null : cause.toString(), cause);
+        }
+        
+        @Override
+        public Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -45,10 +45,28 @@ public class ExecutorBoundDependentPromise<T> extends AbstractDependentPromiseDe
         if (executor == defaultExecutor) {
             return this;
         } else {
-            return super.defaultAsyncOn(executor);
+            // Re-bind the delegate rather than wrap this decorator: 
+            // single layer, and the new executor takes precedence
+            return rebind(executor);
         }
     }
     
+    /**
+     * Decorates the same delegate with another default executor, used by {@link #defaultAsyncOn(Executor)};
+     * subclasses override it to keep their own behavior in the re-bound promise
+     * @param executor
+     *   the new default executor
+     * @return
+     *   the promise bound to the new default executor
+     */
+    protected DependentPromise<T> rebind(Executor executor) {
+        return new ExecutorBoundDependentPromise<>(delegate, executor);
+    }
+    
+    protected Executor getDefaultExecutor() {
+        return defaultExecutor;
+    }
+    
     @Override
     public <U> DependentPromise<U> thenApplyAsync(Function<? super T, ? extends U> fn, boolean enlistOrigin) {
         return thenApplyAsync(fn, defaultExecutor, enlistOrigin);
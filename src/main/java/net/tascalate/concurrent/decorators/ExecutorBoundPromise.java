@@ -57,10 +57,28 @@ public class ExecutorBoundPromise<T> extends AbstractPromiseDecorator<T, Promise
         if (executor == defaultExecutor) {
             return this;
         } else {
-            return super.defaultAsyncOn(executor);
+            // Re-bind the delegate rather than wrap this decorator: 
+            // single layer, and the new executor takes precedence
+            return rebind(executor);
         }
     }
     
+    /**
+     * Decorates the same delegate with another default executor, used by {@link #defaultAsyncOn(Executor)};
+     * subclasses override it to keep their own behavior in the re-bound promise
+     * @param executor
+     *   the new default executor
+     * @return
+     *   the promise bound to the new default executor
+     */
+    protected Promise<T> rebind(Executor executor) {
+        return new ExecutorBoundPromise<>(delegate, executor);
+    }
+    
+    protected Executor getDefaultExecutor() {
+        return defaultExecutor;
+    }
+    
     @Override
     public <U> Promise<U> thenApplyAsync(Function<? super T, ? extends U> fn) {
         return thenApplyAsync(fn, defaultExecutor);
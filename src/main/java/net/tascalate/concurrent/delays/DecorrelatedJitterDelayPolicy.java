@@ -0,0 +1,87 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.delays;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import net.tascalate.concurrent.DelayPolicy;
+import net.tascalate.concurrent.RetryContext;
+
+/**
+ * "Decorrelated jitter": every delay is a random value between the base delay and the tripled previous 
+ * delay (see {@link RetryContext#getLastBackoffDelay()}), but not greater than the cap. 
+ * The policy itself is stateless, so a single instance may be shared by any number of concurrent retries.
+ */
+public class DecorrelatedJitterDelayPolicy<T> implements DelayPolicy<T> {
+    public static final double DEFAULT_MULTIPLIER = 3;
+    
+    private final long baseNanos;
+    private final long capNanos;
+    private final double multiplier;
+    private final Supplier<Random> randomSource;
+
+    public DecorrelatedJitterDelayPolicy(long baseMillis, long capMillis) {
+        this(Duration.ofMillis(baseMillis), Duration.ofMillis(capMillis));
+    }
+    
+    public DecorrelatedJitterDelayPolicy(Duration base, Duration cap) {
+        this(base, cap, DEFAULT_MULTIPLIER, ThreadLocalRandom::current);
+    }
+
+    public DecorrelatedJitterDelayPolicy(Duration base, Duration cap, double multiplier) {
+        this(base, cap, multiplier, ThreadLocalRandom::current);
+    }
+    
+    public DecorrelatedJitterDelayPolicy(Duration base, Duration cap, double multiplier, Random random) {
+        this(base, cap, multiplier, () -> random);
+    }
+    
+    private DecorrelatedJitterDelayPolicy(Duration base, Duration cap, double multiplier, Supplier<Random> randomSource) {
+        if (!DelayPolicy.isValid(base)) {
+            throw new IllegalArgumentException("Base delay must be positive but was: " + base);
+        }
+        if (cap.compareTo(base) < 0) {
+            throw new IllegalArgumentException("Cap must not be less than base delay " + base + " but was: " + cap);
+        }
+        if (multiplier <= 1) {
+            throw new IllegalArgumentException("Multiplier must be greater than 1 but was: " + multiplier);
+        }
+        this.baseNanos    = safeToNanos(base);
+        this.capNanos     = safeToNanos(cap);
+        this.multiplier   = multiplier;
+        this.randomSource = randomSource;
+    }
+
+    @Override
+    public Duration delay(RetryContext<? extends T> context) {
+        Duration lastDelay = context.getLastBackoffDelay();
+        long previous = DelayPolicy.isValid(lastDelay) ? Math.min(safeToNanos(lastDelay), capNanos) : baseNanos;
+        double upper = Math.min(previous * multiplier, capNanos);
+        long result = baseNanos + (long)(randomSource.get().nextDouble() * Math.max(0, upper - baseNanos));
+        return Duration.ofNanos(Math.min(result, capNanos));
+    }
+    
+    private static long safeToNanos(Duration d) {
+        try {
+            return d.toNanos();
+        } catch (ArithmeticException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
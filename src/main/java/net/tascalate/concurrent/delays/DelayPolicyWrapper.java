@@ -35,6 +35,10 @@ public abstract class DelayPolicyWrapper<T> implements DelayPolicy<T> {
         this.target = Objects.requireNonNull(target);
     }
     
+    @Override
+    public void recordLatency(Duration latency) {
+        target.recordLatency(latency);
+    }
     
     protected static Duration max(Duration a, Duration b) {
         return a.compareTo(b) > 0 ? a : b;
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.delays;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+import net.tascalate.concurrent.DelayPolicy;
+import net.tascalate.concurrent.RetryContext;
+
+/**
+ * <p>Delay policy that takes the backoff from the hint carried by the last error or the last result, 
+ * like the <code>Retry-After</code> header of the 429 / 503 HTTP responses. When there is no hint 
+ * the delay of the target policy is used.
+ * <p>The hint is used as is, wrap this policy with {@link BoundedMaxDelayPolicy} (see 
+ * {@link DelayPolicy#withMaxDelay(Duration)}) to protect against unreasonably large server hints.
+ */
+public class ErrorHintDelayPolicy<T> extends DelayPolicyWrapper<T> {
+    // Protection against too long or cyclic cause chains
+    private static final int MAX_CAUSE_DEPTH = 16;
+    
+    @FunctionalInterface
+    public static interface HintExtractor<T> {
+        /**
+         * Extracts the backoff hint from the context of the retry
+         * @param context
+         *   the retry context with the last error or the last result
+         * @return
+         *   the hint or an empty {@link Optional} if there is no hint
+         */
+        Optional<Duration> extract(RetryContext<? extends T> context);
+        
+        default HintExtractor<T> or(HintExtractor<? super T> other) {
+            Objects.requireNonNull(other, "other");
+            return ctx -> {
+                Optional<Duration> result = extract(ctx);
+                return result.isPresent() ? result : other.extract(ctx);
+            };
+        }
+        
+        /**
+         * Creates an extractor that looks for the error of the specified type in the cause chain
+         * of the last error
+         * @param <T>
+         *   a type of the results
+         * @param <E>
+         *   a type of the error that carries the hint
+         * @param errorType
+         *   a class of the error that carries the hint
+         * @param hint
+         *   a function that extracts the hint from the error, may return null if there is no hint
+         * @return
+         *   the extractor
+         */
+        public static <T, E extends Throwable> HintExtractor<T> fromError(Class<E> errorType, 
+                                                                          Function<? super E, ? extends Duration> hint) {
+            Objects.requireNonNull(errorType, "errorType");
+            Objects.requireNonNull(hint, "hint");
+            return ctx -> {
+                Throwable error = ctx.getLastError();
+                for (int depth = 0; null != error && depth < MAX_CAUSE_DEPTH; depth++) {
+                    if (errorType.isInstance(error)) {
+                        return Optional.ofNullable(hint.apply(errorType.cast(error)));
+                    }
+                    Throwable cause = error.getCause();
+                    error = cause == error ? null : cause;
+                }
+                return Optional.empty();
+            };
+        }
+        
+        /**
+         * Creates an extractor that takes the hint from the last (rejected) result
+         * @param <T>
+         *   a type of the results
+         * @param hint
+         *   a function that extracts the hint from the result, may return null if there is no hint
+         * @return
+         *   the extractor
+         */
+        public static <T> HintExtractor<T> fromResult(Function<? super T, ? extends Duration> hint) {
+            Objects.requireNonNull(hint, "hint");
+            return ctx -> {
+                T result = ctx.getLastError() == null ? ctx.getLastResult() : null;
+                return null == result ? Optional.empty() : Optional.ofNullable(hint.apply(result));
+            };
+        }
+    }
+    
+    private final HintExtractor<? super T> extractor;
+    
+    public ErrorHintDelayPolicy(DelayPolicy<? super T> target, HintExtractor<? super T> extractor) {
+        super(target);
+        this.extractor = Objects.requireNonNull(extractor, "extractor");
+    }
+
+    @Override
+    public Duration delay(RetryContext<? extends T> context) {
+        if (context.getRetryCount() > 0) {
+            Optional<Duration> hint = extractor.extract(context);
+            if (hint.isPresent() && !hint.get().isNegative()) {
+                return hint.get();
+            }
+        }
+        return target.delay(context);
+    }
+}
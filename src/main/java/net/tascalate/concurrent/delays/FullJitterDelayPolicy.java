@@ -0,0 +1,46 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.delays;
+
+import java.util.Random;
+
+import net.tascalate.concurrent.DelayPolicy;
+
+/**
+ * "Full jitter": the delay is a random value between zero and the delay of the target policy.
+ * Combined with {@link ExponentialDelayPolicy} and {@link BoundedMaxDelayPolicy} it spreads retries 
+ * of concurrent clients evenly over the growing backoff window.
+ */
+public class FullJitterDelayPolicy<T> extends RandomDelayPolicy<T> {
+
+    public FullJitterDelayPolicy(DelayPolicy<? super T> target) {
+        super(target);
+    }
+
+    public FullJitterDelayPolicy(DelayPolicy<? super T> target, Random random) {
+        super(target, random);
+    }
+
+    @Override
+    long addRandomJitter(long amount, double randomizer, int dimIdx) {
+        return Math.max(0, (long) (amount * randomizer));
+    }
+
+    @Override
+    boolean checkBounds(long amount, double randomizer, int dimIdx) {
+        return true;
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.delays;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import net.tascalate.concurrent.DelayPolicy;
+import net.tascalate.concurrent.RetryContext;
+
+/**
+ * <p>Delay policy that returns the configured percentile of the recently observed latencies.
+ * <p>The policy keeps a sliding window of the last <code>windowSize</code> latencies passed to
+ * {@link #recordLatency(Duration)}; until <code>minSamples</code> latencies are recorded the <code>fallback</code>
+ * delay is used. The percentile is re-calculated lazily, after every <code>windowSize / 16</code> new samples,
+ * so {@link #delay(RetryContext)} is cheap on the hot path.
+ * <p>Hedged promises created via {@link net.tascalate.concurrent.Promises#hedge} record latencies of the winning
+ * attempts automatically, also when the policy is wrapped by other delay policies.
+ *
+ * @param <T>
+ *   a type of the result
+ */
+public class PercentileDelayPolicy<T> implements DelayPolicy<T> {
+    private final double percentile;
+    private final Duration fallback;
+    private final int minSamples;
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final int recalculateEvery;
+
+    private volatile Snapshot snapshot = new Snapshot(0, -1);
+
+    public PercentileDelayPolicy(double percentile, Duration fallback) {
+        this(percentile, fallback, 1024, 32);
+    }
+
+    public PercentileDelayPolicy(double percentile, Duration fallback, int windowSize, int minSamples) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile should be in range (0, 100] but was: " + percentile);
+        }
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size should be positive but was: " + windowSize);
+        }
+        if (minSamples <= 0 || minSamples > windowSize) {
+            throw new IllegalArgumentException("Min samples should be in range (0, " + windowSize + "] but was: " + minSamples);
+        }
+        this.percentile = percentile;
+        this.fallback = fallback;
+        this.minSamples = minSamples;
+        this.samples = new AtomicLongArray(windowSize);
+        this.recalculateEvery = Math.max(1, windowSize / 16);
+    }
+
+    @Override
+    public void recordLatency(Duration latency) {
+        long nanos = latency.isNegative() ? 0 : latency.compareTo(MAX_BY_NANOS) >= 0 ? Long.MAX_VALUE : latency.toNanos();
+        long position = recorded.getAndIncrement();
+        samples.set((int)(position % samples.length()), nanos);
+    }
+
+    @Override
+    public Duration delay(RetryContext<? extends T> context) {
+        long count = recorded.get();
+        if (count < minSamples) {
+            return fallback;
+        }
+        Snapshot current = snapshot;
+        if (count - current.recordedAt >= recalculateEvery || current.nanos < 0) {
+            current = new Snapshot(count, calculate(count));
+            snapshot = current;
+        }
+        return Duration.ofNanos(current.nanos);
+    }
+
+    private long calculate(long count) {
+        int size = (int)Math.min(count, samples.length());
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = samples.get(i);
+        }
+        Arrays.sort(values);
+        int index = (int)Math.ceil(percentile / 100 * size) - 1;
+        return values[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    private static final Duration MAX_BY_NANOS = Duration.ofNanos(Long.MAX_VALUE);
+
+    private static final class Snapshot {
+        final long recordedAt;
+        final long nanos;
+
+        Snapshot(long recordedAt, long nanos) {
+            this.recordedAt = recordedAt;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.locks;
+
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import net.tascalate.concurrent.Promise;
+import net.tascalate.concurrent.Promises;
+
+/**
+ * <p>Asynchronous semaphore whose number of permits is adjusted dynamically by the {@link AdaptiveLimit}
+ * algorithm from the round-trip times and failures of the guarded operations.
+ * <p>Permits are acquired as {@link Token}-s the same way as with {@link AsyncSemaphoreLock}; the way the token
+ * is released reports the outcome of the operation: {@link Token#release()} for success,
+ * {@link Token#releaseOnFailure()} for failure or overload and {@link Token#releaseIgnored()} when the outcome
+ * should not affect the limit. Alternatively {@link #execute(Supplier)} does all of this automatically.
+ */
+public class AdaptiveAsyncLimiter extends AsyncSemaphoreBase<AdaptiveAsyncLimiter.Token>
+                                  implements AbstractAsyncLock<AdaptiveAsyncLimiter.Token> {
+    
+    private final AdaptiveLimit algorithm;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    
+    public AdaptiveAsyncLimiter(AdaptiveLimit algorithm) {
+        this(algorithm, false);
+    }
+    
+    public AdaptiveAsyncLimiter(AdaptiveLimit algorithm, boolean fair) {
+        super(algorithm.initialLimit(), fair);
+        this.algorithm = algorithm;
+        this.limit     = algorithm.initialLimit();
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    @Override
+    public Optional<Token> tryAcquire() {
+        if (tryAcquireInternal(1)) {
+            return Optional.of(createPromisePayload(1));
+        } else {
+            return Optional.empty();
+        }
+    }
+    
+    @Override
+    public Promise<Token> acquire() {
+        return acquire(1);
+    }
+    
+    /**
+     * Executes the asynchronous operation once the permit is acquired and releases the permit
+     * reporting the outcome of the operation to the limit algorithm
+     * @param <T>
+     *   a type of the result
+     * @param operation
+     *   an asynchronous operation to execute
+     * @return
+     *   a promise of the operation result
+     */
+    public <T> Promise<T> execute(Supplier<? extends CompletionStage<T>> operation) {
+        return acquire()
+               .dependent()
+               .thenCompose(token -> {
+                   CompletionStage<T> result;
+                   try {
+                       result = operation.get();
+                   } catch (Throwable ex) {
+                       token.releaseOnFailure();
+                       return Promises.<T>failure(ex);
+                   }
+                   return Promises.from(result)
+                                  .dependent()
+                                  .whenComplete((r, ex) -> {
+                                      if (null == ex) {
+                                          token.release();
+                                      } else if (Promises.unwrapCompletionException(ex) instanceof CancellationException) {
+                                          // Cancelled by the caller, says nothing about the guarded service
+                                          token.releaseIgnored();
+                                      } else {
+                                          token.releaseOnFailure();
+                                      }
+                                  }, true);
+               }, true);
+    }
+    
+    @Override
+    protected Token createPromisePayload(long permits) {
+        return new LimiterToken(permits);
+    }
+
+    @Override
+    protected LimiterPromise createPromise(long permits) {
+        return new LimiterPromise(permits);
+    }
+    
+    @Override
+    boolean isResizable() {
+        // The limit changes with samples
+        return true;
+    }
+    
+    void onSample(long permits, long rttNanos, int startInFlight, boolean dropped, boolean ignored) {
+        inFlight.addAndGet((int)-permits);
+        if (!ignored) {
+            synchronized (algorithm) {
+                int current = limit;
+                int updated = Math.max(1, algorithm.update(current, rttNanos, startInFlight, dropped));
+                if (updated != current) {
+                    limit = updated;
+                    // Only adjusts the counters, waiters are resumed by release(...) outside of the lock
+                    resize(updated);
+                }
+            }
+        }
+        release(permits);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(
+            "%s(limit=%d, inFlight=%d, availablePermits=%d, queueSize=%d)", 
+            getClass().getSimpleName(), limit, inFlight.get(), availablePermits(), getQueueLength()
+        );
+    }
+    
+    /**
+     * A limiter token indicating that the permit has been acquired. The token should be released exactly once;
+     * the method used to release it reports the outcome of the guarded operation.
+     */
+    public interface Token extends AsyncSemaphoreLock.Token {
+        /** Releases the permit reporting successful operation */
+        @Override
+        void release();
+        
+        /** Releases the permit reporting failed or dropped operation, the limit is reduced */
+        void releaseOnFailure();
+        
+        /** Releases the permit without affecting the limit */
+        void releaseIgnored();
+    }
+    
+    private class LimiterToken implements Token {
+        private final long permits;
+        private final long startTime = System.nanoTime();
+        private final int startInFlight;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        LimiterToken(long permits) {
+            this.permits = permits;
+            this.startInFlight = inFlight.addAndGet((int)permits);
+        }
+        
+        @Override
+        public long permits() {
+            return permits;
+        }
+        
+        @Override
+        public void release() {
+            release(false, false);
+        }
+        
+        @Override
+        public void releaseOnFailure() {
+            release(true, false);
+        }
+        
+        @Override
+        public void releaseIgnored() {
+            release(false, true);
+        }
+        
+        private void release(boolean dropped, boolean ignored) {
+            if (released.compareAndSet(false, true)) {
+                onSample(permits, System.nanoTime() - startTime, startInFlight, dropped, ignored);
+            }
+        }
+    }
+    
+    private class LimiterPromise extends AbstractSemaphorePromise {
+        private final long permits;
+        
+        LimiterPromise(long permits) {
+            this.permits = permits;
+        }
+        
+        @Override
+        long permits() {
+            return permits;
+        }
+        
+        @Override
+        boolean acquire() {
+            // Token is created when permits are granted, so queueing time is not counted as round-trip time
+            LimiterToken token = new LimiterToken(permits);
+            if (success(token)) {
+                return true;
+            } else {
+                inFlight.addAndGet((int)-permits);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.locks;
+
+import java.time.Duration;
+
+/**
+ * <p>Algorithm that calculates concurrency limit of the {@link AdaptiveAsyncLimiter} from the observed
+ * round-trip times and failures of the guarded operations.
+ * <p>Implementations are stateful and must be used with a single limiter; the limiter serializes calls to
+ * {@link #update(int, long, int, boolean)}, so implementations need not be thread-safe.
+ */
+public interface AdaptiveLimit {
+    
+    int initialLimit();
+    
+    /**
+     * Calculates new limit after the operation is completed
+     * @param currentLimit
+     *   the current limit
+     * @param rttNanos
+     *   the round-trip time of the completed operation in nanoseconds
+     * @param inFlight
+     *   the number of operations in flight when the completed operation was started
+     * @param dropped
+     *   whether the operation failed or was dropped
+     * @return
+     *   the new limit, values outside of the algorithm range are not expected
+     */
+    int update(int currentLimit, long rttNanos, int inFlight, boolean dropped);
+    
+    public static AdaptiveLimit aimd(int minLimit, int maxLimit) {
+        return new AimdLimit(minLimit, minLimit, maxLimit, 0.9, Duration.ofSeconds(5));
+    }
+    
+    public static AdaptiveLimit aimd(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration timeout) {
+        return new AimdLimit(initialLimit, minLimit, maxLimit, backoffRatio, timeout);
+    }
+    
+    public static AdaptiveLimit vegas(int initialLimit, int maxLimit) {
+        return new VegasLimit(initialLimit, maxLimit);
+    }
+    
+    public static AdaptiveLimit gradient(int initialLimit, int minLimit, int maxLimit) {
+        return new GradientLimit(initialLimit, minLimit, maxLimit, 0.2);
+    }
+    
+    public static AdaptiveLimit gradient(int initialLimit, int minLimit, int maxLimit, double smoothing) {
+        return new GradientLimit(initialLimit, minLimit, maxLimit, smoothing);
+    }
+}
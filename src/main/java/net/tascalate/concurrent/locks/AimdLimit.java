@@ -0,0 +1,58 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.locks;
+
+import java.time.Duration;
+
+/**
+ * Additive increase / multiplicative decrease: the limit grows by one while at least half of it is used
+ * and is multiplied by the <code>backoffRatio</code> when an operation fails or exceeds the <code>timeout</code>.
+ */
+public class AimdLimit implements AdaptiveLimit {
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+    
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration timeout) {
+        LimitBounds.check(initialLimit, minLimit, maxLimit);
+        if (backoffRatio < 0.5 || backoffRatio >= 1.0) {
+            throw new IllegalArgumentException("Backoff ratio should be in range [0.5, 1.0) but was: " + backoffRatio);
+        }
+        this.initialLimit = initialLimit;
+        this.minLimit     = minLimit;
+        this.maxLimit     = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public int initialLimit() {
+        return initialLimit;
+    }
+
+    @Override
+    public int update(int currentLimit, long rttNanos, int inFlight, boolean dropped) {
+        if (dropped || rttNanos > timeoutNanos) {
+            return Math.max(minLimit, (int)(currentLimit * backoffRatio));
+        } else if (inFlight * 2 >= currentLimit) {
+            return Math.min(maxLimit, currentLimit + 1);
+        } else {
+            return currentLimit;
+        }
+    }
+}
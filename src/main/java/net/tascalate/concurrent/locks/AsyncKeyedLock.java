@@ -0,0 +1,57 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.locks;
+
+import java.util.Optional;
+
+import net.tascalate.concurrent.Promise;
+
+/**
+ * <p>A set of asynchronously acquirable mutual exclusion locks, one per key; for example, to serialize 
+ * operations per account id without blocking a thread per waiter.
+ * <p>Locks are not reentrant: neither threads nor asynchronous flows are owners of the lock, only the 
+ * {@link AsyncLock.Token} is. Per-key state exists only while the lock for the key is held or awaited.
+ *
+ * @param <K>
+ *   a type of the keys
+ */
+public interface AsyncKeyedLock<K> {
+    
+    /**
+     * Attempts to immediately acquire the lock for the key
+     * @param key
+     *   the key
+     * @return 
+     *   an {@link Optional} holding a {@link AsyncLock.Token} if the lock for the key is not held; 
+     *   otherwise an empty Optional
+     */
+    Optional<AsyncLock.Token> tryAcquire(K key);
+    
+    /**
+     * Exclusively acquires the lock for the key. Cancelling the returned promise before it's completed
+     * removes the caller from the queue of waiters.
+     * @param key
+     *   the key
+     * @return 
+     *   a {@link Promise} which will complete with a {@link AsyncLock.Token} when the lock for the key 
+     *   has been exclusively acquired
+     */
+    Promise<AsyncLock.Token> acquire(K key);
+
+    static <K> AsyncKeyedLock<K> create() {
+        return new DefaultAsyncKeyedLock<>();
+    }
+}
@@ -26,7 +26,8 @@ import net.tascalate.concurrent.Promises;
 
 abstract class AsyncSemaphoreBase<T> {
     
-    private final long totalPermits;
+    // Mutable to support resizing, see resize(long)
+    private volatile long totalPermits;
     private final boolean fair;
     
     private final AtomicLong availablePermits;    
@@ -102,16 +103,57 @@ abstract class AsyncSemaphoreBase<T> {
     }
 
     void release(long permits) {
+        long total = totalPermits;
         long current = availablePermits.addAndGet(permits);
-        if (current < 0 || current > totalPermits) {
+        boolean outOfRange = isResizable() ?
+            // Number of available permits is negative while permits taken before shrinking are not returned;
+            // the check is skipped when the semaphore is resized concurrently
+            current > total && total == totalPermits :
+            current < 0 || current > total;
+        if (outOfRange) {
             throw new IllegalStateException(String.format(
                 "After releasing %d permits number of available permits %d is not within range 1..%d", 
-                permits, current, totalPermits
+                permits, current, total
             ));
         }
         nextWaiters();
     }
     
+    long totalPermits() {
+        return totalPermits;
+    }
+    
+    /**
+     * Whether the semaphore supports {@link #resize(long)}; fixed-size semaphores keep 
+     * the strict range check of the available permits on release
+     */
+    boolean isResizable() {
+        return false;
+    }
+    
+    /**
+     * Changes total number of permits. When the number decreases then available permits
+     * may become negative until the permits acquired before are released.
+     * <p>Waiters are not resumed here, so the method may be called while holding the caller's lock;
+     * the caller must invoke {@link #release(long)} afterwards to let waiters use the added permits.
+     */
+    void resize(long newTotalPermits) {
+        if (!isResizable()) {
+            throw new UnsupportedOperationException("Semaphore has fixed number of permits");
+        }
+        if (newTotalPermits <= 0) {
+            throw new IllegalArgumentException("totalPermits must be a positive integer");
+        }
+        synchronized (availablePermits) {
+            long delta = newTotalPermits - totalPermits;
+            if (delta == 0) {
+                return;
+            }
+            totalPermits = newTotalPermits;
+            availablePermits.addAndGet(delta);
+        }
+    }
+    
     abstract protected T createPromisePayload(long permits);
     abstract protected AbstractSemaphorePromise createPromise(long permits);
     
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.locks;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import net.tascalate.concurrent.CompletableFutureWrapper;
+import net.tascalate.concurrent.Promise;
+
+/**
+ * Keyed lock backed by lazily created {@link DefaultAsyncLock} per key; the per-key lock is 
+ * reference-counted by holders and waiters and removed once it's idle.
+ *
+ * @param <K>
+ *   a type of the keys
+ */
+public class DefaultAsyncKeyedLock<K> implements AsyncKeyedLock<K> {
+    private final ConcurrentMap<K, KeyLock> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<AsyncLock.Token> tryAcquire(K key) {
+        KeyLock keyLock = reference(key);
+        Optional<AsyncLock.Token> token = keyLock.lock.tryAcquire();
+        if (token.isPresent()) {
+            return Optional.of(keyLock.wrap(key, token.get()));
+        } else {
+            unreference(key, keyLock);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Promise<AsyncLock.Token> acquire(K key) {
+        KeyLock keyLock = reference(key);
+        KeyLockPromise result = new KeyLockPromise(key, keyLock);
+        result.start();
+        return result;
+    }
+    
+    /**
+     * @return 
+     *   the number of keys whose locks are held or awaited
+     */
+    public int activeKeys() {
+        return locks.size();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s(activeKeys=%d)", getClass().getSimpleName(), activeKeys());
+    }
+    
+    private KeyLock reference(K key) {
+        Objects.requireNonNull(key, "key");
+        return locks.compute(key, (k, v) -> {
+            KeyLock result = null == v ? new KeyLock() : v;
+            result.references++;
+            return result;
+        });
+    }
+    
+    private void unreference(K key, KeyLock keyLock) {
+        locks.computeIfPresent(key, (k, v) -> {
+            if (v != keyLock) {
+                return v;
+            }
+            return --v.references == 0 ? null : v;
+        });
+    }
+    
+    private final class KeyLock {
+        final DefaultAsyncLock lock = new DefaultAsyncLock();
+        // Guarded by the map compute methods
+        int references;
+        
+        AsyncLock.Token wrap(K key, AsyncLock.Token token) {
+            AtomicBoolean released = new AtomicBoolean();
+            return () -> {
+                if (released.compareAndSet(false, true)) {
+                    token.release();
+                    unreference(key, this);
+                }
+            };
+        }
+    }
+    
+    private final class KeyLockPromise extends CompletableFutureWrapper<AsyncLock.Token> {
+        private final K key;
+        private final KeyLock keyLock;
+        private volatile Promise<AsyncLock.Token> pending;
+        
+        KeyLockPromise(K key, KeyLock keyLock) {
+            this.key = key;
+            this.keyLock = keyLock;
+        }
+        
+        void start() {
+            Promise<AsyncLock.Token> lockPromise = keyLock.lock.acquire();
+            pending = lockPromise;
+            lockPromise.whenComplete((token, ex) -> {
+                if (null != ex) {
+                    failure(ex);
+                    unreference(key, keyLock);
+                } else {
+                    AsyncLock.Token keyToken = keyLock.wrap(key, token);
+                    if (!success(keyToken)) {
+                        // Cancelled concurrently, nobody else may release the lock
+                        keyToken.release();
+                    }
+                }
+            });
+            if (isCancelled()) {
+                lockPromise.cancel(true);
+            }
+        }
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (super.cancel(mayInterruptIfRunning)) {
+                Promise<AsyncLock.Token> lockPromise = pending;
+                if (null != lockPromise) {
+                    lockPromise.cancel(mayInterruptIfRunning);
+                }
+                return true;
+            } else {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.locks;
+
+/**
+ * <p>Gradient limit: compares the short-term (recent) and the long-term averages of the round-trip time.
+ * When recent latencies are higher than usual the gradient <code>longRtt / shortRtt</code> drops below one and
+ * the limit decreases proportionally; otherwise the limit grows by <code>sqrt(limit)</code> allowed queueing.
+ * Changes are smoothed with the <code>smoothing</code> factor.
+ */
+public class GradientLimit implements AdaptiveLimit {
+    private static final double SHORT_WINDOW_FACTOR = 2.0 / (10 + 1);
+    private static final double LONG_WINDOW_FACTOR  = 2.0 / (600 + 1);
+    
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    
+    private double shortRtt;
+    private double longRtt;
+    private double estimatedLimit;
+    
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing) {
+        LimitBounds.check(initialLimit, minLimit, maxLimit);
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Smoothing should be in range (0, 1] but was: " + smoothing);
+        }
+        this.initialLimit   = initialLimit;
+        this.minLimit       = minLimit;
+        this.maxLimit       = maxLimit;
+        this.smoothing      = smoothing;
+        this.estimatedLimit = initialLimit;
+    }
+
+    @Override
+    public int initialLimit() {
+        return initialLimit;
+    }
+
+    @Override
+    public int update(int currentLimit, long rttNanos, int inFlight, boolean dropped) {
+        if (rttNanos <= 0) {
+            return currentLimit;
+        }
+        if (longRtt == 0) {
+            shortRtt = longRtt = rttNanos;
+        } else {
+            shortRtt += (rttNanos - shortRtt) * SHORT_WINDOW_FACTOR;
+            longRtt  += (rttNanos - longRtt) * LONG_WINDOW_FACTOR;
+        }
+        
+        if (longRtt / shortRtt > 2) {
+            // Long-term average is stale after the recovery from the overload, so let it decay faster
+            longRtt *= 0.95;
+        }
+        
+        if (!dropped && inFlight * 2 < estimatedLimit) {
+            // Avoid growing the limit that is not used
+            return currentLimit;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * (dropped ? 0.5 : gradient) + queueSize;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - smoothing) + newLimit * smoothing));
+        return (int)estimatedLimit;
+    }
+}
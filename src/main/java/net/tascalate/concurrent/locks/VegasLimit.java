@@ -0,0 +1,63 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.locks;
+
+/**
+ * <p>TCP Vegas style limit: the minimal observed round-trip time is treated as the time without queueing,
+ * so the estimated queue size is <code>limit * (1 - minRtt / rtt)</code>. The limit grows while the queue is
+ * below <code>alpha = 3 * log10(limit)</code> and shrinks when the queue exceeds <code>beta = 6 * log10(limit)</code>
+ * or an operation fails.
+ */
+public class VegasLimit implements AdaptiveLimit {
+    private final int initialLimit;
+    private final int maxLimit;
+    
+    private long minRttNanos = Long.MAX_VALUE;
+    
+    public VegasLimit(int initialLimit, int maxLimit) {
+        LimitBounds.check(initialLimit, 1, maxLimit);
+        this.initialLimit = initialLimit;
+        this.maxLimit     = maxLimit;
+    }
+
+    @Override
+    public int initialLimit() {
+        return initialLimit;
+    }
+
+    @Override
+    public int update(int currentLimit, long rttNanos, int inFlight, boolean dropped) {
+        int step = Math.max(1, (int)Math.log10(currentLimit));
+        if (dropped) {
+            return Math.max(1, currentLimit - step);
+        }
+        if (rttNanos <= 0) {
+            return currentLimit;
+        }
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+        int queueSize = (int)Math.ceil(currentLimit * (1 - (double)minRttNanos / rttNanos));
+        int alpha = 3 * step;
+        int beta  = 6 * step;
+        if (queueSize <= alpha) {
+            // Grow only when the limit is actually used
+            return inFlight * 2 >= currentLimit ? Math.min(maxLimit, currentLimit + step) : currentLimit;
+        } else if (queueSize > beta) {
+            return Math.max(1, currentLimit - step);
+        } else {
+            return currentLimit;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncCompletionsPublisherTests {
+
+    private TaskExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = TaskExecutors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testAllResultsAreEmitted() throws Exception {
+        List<Promise<Integer>> promises = IntStream.range(0, 20)
+                                                   .mapToObj(i -> executor.submit(() -> i))
+                                                   .collect(Collectors.toList());
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(1);
+        AsyncCompletionsPublisher.from(promises, 4).subscribe(subscriber);
+        Assert.assertTrue("Publisher is not completed", subscriber.done.await(5, TimeUnit.SECONDS));
+        Assert.assertNull(subscriber.error);
+        List<Integer> sorted = new ArrayList<>(subscriber.values);
+        Collections.sort(sorted);
+        Assert.assertEquals(IntStream.range(0, 20).boxed().collect(Collectors.toList()), sorted);
+    }
+
+    @Test
+    public void testPromisesArePulledOnDemand() throws Exception {
+        AtomicInteger pulled = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = IntStream.range(0, 10)
+                                                            .mapToObj(i -> new CompletableFuture<Integer>())
+                                                            .collect(Collectors.toList());
+        Flow.Publisher<Integer> publisher = AsyncCompletionsPublisher.from(
+            futures.stream().peek(f -> pulled.incrementAndGet()), 0
+        );
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(0);
+        publisher.subscribe(subscriber);
+        Assert.assertEquals(0, pulled.get());
+        subscriber.subscription.request(2);
+        Assert.assertEquals(2, pulled.get());
+        futures.get(1).complete(1);
+        Assert.assertEquals(Collections.singletonList(1), subscriber.values);
+        Assert.assertEquals(2, pulled.get());
+        subscriber.subscription.cancel();
+        Assert.assertTrue("Enlisted promise is not cancelled", futures.get(0).isCancelled());
+        Assert.assertFalse("Not enlisted promise is cancelled", futures.get(2).isCancelled());
+    }
+
+    @Test
+    public void testSourceIsNotProbedWithoutDemand() throws Exception {
+        AtomicInteger pulled = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = IntStream.range(0, 3)
+                                                            .mapToObj(i -> new CompletableFuture<Integer>())
+                                                            .collect(Collectors.toList());
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(0);
+        AsyncCompletionsPublisher.from(futures.stream().peek(f -> pulled.incrementAndGet()), 0).subscribe(subscriber);
+        subscriber.subscription.request(2);
+        futures.get(0).complete(0);
+        futures.get(1).complete(1);
+        Assert.assertEquals(Arrays.asList(0, 1), subscriber.values);
+        // No demand left, so the lazy source is not advanced even to check for its end
+        Assert.assertEquals(2, pulled.get());
+        
+        subscriber.subscription.request(1);
+        Assert.assertEquals(3, pulled.get());
+        futures.get(2).complete(2);
+        Assert.assertEquals(1, subscriber.done.getCount());
+        // End of the source is detected with the demand for the item that doesn't exist
+        subscriber.subscription.request(1);
+        Assert.assertTrue("Publisher is not completed", subscriber.done.await(5, TimeUnit.SECONDS));
+        Assert.assertNull(subscriber.error);
+        Assert.assertEquals(Arrays.asList(0, 1, 2), subscriber.values);
+    }
+
+    @Test
+    public void testSourceErrorTerminatesSequence() throws Exception {
+        CompletableFuture<Integer> enlisted = new CompletableFuture<>();
+        Iterator<CompletableFuture<Integer>> source = new Iterator<CompletableFuture<Integer>>() {
+            boolean first = true;
+            
+            @Override
+            public boolean hasNext() {
+                if (first) {
+                    return true;
+                }
+                throw new IllegalStateException("source failed");
+            }
+            
+            @Override
+            public CompletableFuture<Integer> next() {
+                first = false;
+                return enlisted;
+            }
+        };
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(0);
+        Iterable<CompletableFuture<Integer>> iterable = () -> source;
+        AsyncCompletionsPublisher.<Integer>from(iterable, 0).subscribe(subscriber);
+        subscriber.subscription.request(2);
+        Assert.assertTrue("Publisher is not completed", subscriber.done.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(subscriber.error instanceof IllegalStateException);
+        Assert.assertTrue("Enlisted promise is not cancelled", enlisted.isCancelled());
+        // Terminated sequence ignores further signals
+        subscriber.subscription.request(1);
+        enlisted.complete(1);
+        Assert.assertTrue(subscriber.values.isEmpty());
+    }
+
+    @Test
+    public void testErrorTerminatesSequence() throws Exception {
+        CompletableFuture<Integer> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new ArithmeticException());
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+        AsyncCompletionsPublisher.from(Collections.singletonList(failed), 1).subscribe(subscriber);
+        Assert.assertTrue("Publisher is not completed", subscriber.done.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue("ArithmeticException was not raised", subscriber.error instanceof ArithmeticException);
+    }
+
+    static class CollectingSubscriber<T> implements Flow.Subscriber<T> {
+        final long batch;
+        final List<T> values = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        CollectingSubscriber(long batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batch > 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            values.add(item);
+            if (batch > 0 && batch != Long.MAX_VALUE) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncIteratorTests {
+
+    private TaskExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = TaskExecutors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testMapFilterCollect() {
+        List<Integer> result = AsyncIterator.of(IntStream.range(0, 10).boxed().iterator())
+                                            .filter(i -> i % 2 == 0)
+                                            .map(i -> i * 10)
+                                            .collect(Collectors.toList())
+                                            .join();
+        Assert.assertEquals(Arrays.asList(0, 20, 40, 60, 80), result);
+    }
+
+    @Test
+    public void testMapAsyncKeepsOrder() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<Integer> result = AsyncIterator.of(IntStream.range(0, 50).boxed().iterator())
+                                            .mapAsync(4, i -> executor.submit(() -> {
+                                                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                                                try {
+                                                    Thread.sleep((i * 7) % 5);
+                                                } finally {
+                                                    active.decrementAndGet();
+                                                }
+                                                return i;
+                                            }))
+                                            .collect(Collectors.toList())
+                                            .join();
+        Assert.assertEquals(IntStream.range(0, 50).boxed().collect(Collectors.toList()), result);
+        Assert.assertTrue("Concurrency limit exceeded: " + maxActive.get(), maxActive.get() <= 4);
+    }
+
+    @Test
+    public void testBatchAndPagination() {
+        AtomicInteger page = new AtomicInteger();
+        AsyncIterator<Integer> pages = AsyncIterator.generate(() -> executor.submit(() -> {
+            int current = page.getAndIncrement();
+            return current < 7 ? Optional.of(current) : Optional.<Integer>empty();
+        }));
+        List<List<Integer>> result = pages.batch(3).collect(Collectors.toList()).join();
+        Assert.assertEquals(Arrays.asList(Arrays.asList(0, 1, 2), Arrays.asList(3, 4, 5), Arrays.asList(6)), result);
+    }
+
+    @Test
+    public void testForEachAsyncFailure() {
+        AtomicInteger count = new AtomicInteger();
+        Promise<Void> done = AsyncIterator.generate(() -> count.incrementAndGet() < 3 ? 
+                                                          Promises.success(Optional.of(1)) :
+                                                          Promises.<Optional<Integer>>failure(new IllegalStateException()))
+                                          .forEachAsync(v -> {});
+        try {
+            done.join();
+            Assert.fail("Exception is not propagated");
+        } catch (java.util.concurrent.CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(3, count.get());
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Throughput of {@link AsyncLoadingCache#get(Object)} compared with the plain 
+ * <code>ConcurrentHashMap&lt;K, CompletableFuture&lt;V&gt;&gt;.computeIfAbsent</code>, 
+ * with the unbounded and the size-bounded cache, for the hot key set that fits into the cache.
+ */
+public class AsyncLoadingCacheBenchmark {
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int KEYS = 10_000;
+    private static final long DURATION_MILLIS = 2_000;
+    
+    public static void main(String[] argv) throws Exception {
+        for (int round = 0; round < 2; round++) {
+            System.out.println(round == 0 ? "Warm-up" : "Measurement");
+            
+            ConcurrentHashMap<Integer, CompletableFuture<Integer>> map = new ConcurrentHashMap<>();
+            run("ConcurrentHashMap<K, CompletableFuture<V>>", 
+                k -> map.computeIfAbsent(k, CompletableFuture::completedFuture));
+            
+            AsyncLoadingCache<Integer, Integer> unbounded = AsyncLoadingCache.builder().build(Promises::success);
+            run("AsyncLoadingCache, unbounded", unbounded::get);
+
+            AsyncLoadingCache<Integer, Integer> bounded = AsyncLoadingCache.builder()
+                                                                           .withMaximumSize(KEYS * 2)
+                                                                           .build(Promises::success);
+            run("AsyncLoadingCache, maximum size", bounded::get);
+        }
+    }
+    
+    private static void run(String name, IntFunction<? extends Future<?>> lookup) throws Exception {
+        LongAdder ops = new LongAdder();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+        for (int i = 0; i < THREADS; i++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                try {
+                    while ((count & 1023) != 0 || System.currentTimeMillis() < deadline) {
+                        lookup.apply(random.nextInt(KEYS)).get();
+                        count++;
+                    }
+                } catch (InterruptedException | ExecutionException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                ops.add(count);
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        System.out.println(String.format("%-45s %,15d ops/s", name, ops.sum() * 1000 / DURATION_MILLIS));
+    }
+}
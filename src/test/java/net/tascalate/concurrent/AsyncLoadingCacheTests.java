@@ -0,0 +1,152 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AsyncLoadingCacheTests {
+
+    @Test
+    public void testConcurrentMissesShareLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> load = new CompletableFuture<>();
+        AsyncLoadingCache<String, String> cache = AsyncLoadingCache.builder().build(k -> {
+            loads.incrementAndGet();
+            return load;
+        });
+        Promise<String> a = cache.get("key");
+        Promise<String> b = cache.get("key");
+        Assert.assertEquals(1, loads.get());
+        load.complete("value");
+        Assert.assertEquals("value", a.join());
+        Assert.assertEquals("value", b.join());
+        Assert.assertEquals("value", cache.get("key").join());
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testFailedLoadIsEvicted() {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncLoadingCache<String, String> cache = AsyncLoadingCache.builder().build(k -> {
+            if (loads.incrementAndGet() == 1) {
+                return Promises.failure(new IllegalStateException());
+            }
+            return Promises.success("value");
+        });
+        Assert.assertTrue(cache.get("key").isCompletedExceptionally());
+        Assert.assertNull(cache.getIfPresent("key"));
+        Assert.assertEquals("value", cache.get("key").join());
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testCallerCancellationDoesNotCancelSharedLoad() {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        AsyncLoadingCache<String, String> cache = AsyncLoadingCache.builder().build(k -> load);
+        Promise<String> a = cache.get("key");
+        Promise<String> b = cache.get("key");
+        a.cancel(true);
+        Assert.assertFalse(load.isCancelled());
+        b.cancel(true);
+        Assert.assertTrue(load.isCancelled());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLruEviction() {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncLoadingCache<Integer, Integer> cache = AsyncLoadingCache.builder()
+                                                                     .withMaximumSize(2)
+                                                                     .build(k -> {
+                                                                         loads.incrementAndGet();
+                                                                         return Promises.success(k);
+                                                                     });
+        cache.get(1).join();
+        cache.get(2).join();
+        cache.get(1).join();
+        cache.get(3).join();
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotNull("Recently used entry is evicted", cache.getIfPresent(1));
+        Assert.assertNull("Least recently used entry is not evicted", cache.getIfPresent(2));
+        Assert.assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testExpiration() {
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        AsyncLoadingCache<String, Integer> cache = AsyncLoadingCache.builder()
+                                                                    .withExpireAfterWrite(Duration.ofSeconds(10))
+                                                                    .withExpireAfterAccess(Duration.ofSeconds(3))
+                                                                    .withTicker(clock::get)
+                                                                    .build(k -> Promises.success(loads.incrementAndGet()));
+        Assert.assertEquals(Integer.valueOf(1), cache.get("key").join());
+        for (int i = 0; i < 4; i++) {
+            clock.addAndGet(Duration.ofSeconds(2).toNanos());
+            Assert.assertEquals(Integer.valueOf(1), cache.get("key").join());
+        }
+        // Expired after write
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        Assert.assertEquals(Integer.valueOf(2), cache.get("key").join());
+        // Expired after access
+        clock.addAndGet(Duration.ofSeconds(3).toNanos());
+        Assert.assertNull(cache.getIfPresent("key"));
+        Assert.assertEquals(Integer.valueOf(3), cache.get("key").join());
+    }
+
+    @Test
+    public void testExpiredEntriesOfDistinctKeysAreSwept() {
+        AtomicLong clock = new AtomicLong();
+        AsyncLoadingCache<Integer, Integer> cache = AsyncLoadingCache.builder()
+                                                                     .withExpireAfterWrite(Duration.ofSeconds(1))
+                                                                     .withTicker(clock::get)
+                                                                     .build(k -> Promises.success(k));
+        int key = 0;
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 100; i++) {
+                cache.get(key++).join();
+            }
+            clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        }
+        Assert.assertTrue("Expired entries are not removed: " + cache.size(), cache.size() <= 300);
+    }
+
+    @Test
+    public void testRefreshAhead() {
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<Integer> reload = new CompletableFuture<>();
+        AsyncLoadingCache<String, Integer> cache = AsyncLoadingCache.builder()
+                                                                    .withRefreshAfterWrite(Duration.ofSeconds(5))
+                                                                    .withTicker(clock::get)
+                                                                    .build(k -> loads.incrementAndGet() == 1 ? 
+                                                                                Promises.success(1) : reload);
+        Assert.assertEquals(Integer.valueOf(1), cache.get("key").join());
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        // Stale value is served while reloading
+        Assert.assertEquals(Integer.valueOf(1), cache.get("key").join());
+        Assert.assertEquals(Integer.valueOf(1), cache.get("key").join());
+        Assert.assertEquals(2, loads.get());
+        reload.complete(2);
+        Assert.assertEquals(Integer.valueOf(2), cache.get("key").join());
+    }
+}
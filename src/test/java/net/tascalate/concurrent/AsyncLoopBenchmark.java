@@ -0,0 +1,73 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class AsyncLoopBenchmark {
+    private static final int ITERATIONS = 10_000_000;
+
+    public static void main(String[] argv) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int round = 0; round < 3; round++) {
+                System.out.println("Round #" + round);
+                measure("completed stages", () -> 
+                    Promises.loop(0, i -> i < ITERATIONS, i -> CompletableFuture.completedFuture(i + 1))
+                );
+                measure("completed stages, hop every 1024", () -> 
+                    Promises.loop(0, i -> i < ITERATIONS, i -> CompletableFuture.completedFuture(i + 1), executor, 1024)
+                );
+                measure("pending stages", () -> 
+                    Promises.loop(0, i -> i < ITERATIONS, i -> {
+                        CompletableFuture<Integer> f = new CompletableFuture<>();
+                        executor.execute(() -> f.complete(i + 1));
+                        return f;
+                    })
+                );
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void measure(String name, java.util.function.Supplier<Promise<Integer>> loop) {
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        int result = loop.get().join();
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocatedBytes() - bytesBefore;
+        if (result != ITERATIONS) {
+            throw new IllegalStateException("Unexpected result: " + result);
+        }
+        System.out.println(String.format(
+            "  %-36s %8.1f ns/op %8.1f bytes/op (calling thread)", 
+            name, (double)elapsed / ITERATIONS, (double)bytes / ITERATIONS
+        ));
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        } else {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncLoopTests {
+
+    private TaskExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = TaskExecutors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testCompletedStagesDoNotGrowStack() {
+        int result = Promises.loop(0, i -> i < 1_000_000, i -> CompletableFuture.completedFuture(i + 1)).join();
+        Assert.assertEquals(1_000_000, result);
+    }
+
+    @Test
+    public void testAsynchronousStages() {
+        int result = Promises.loop(0, i -> i < 1_000, i -> executor.submit(() -> i + 1)).join();
+        Assert.assertEquals(1_000, result);
+    }
+
+    @Test
+    public void testMixedStages() {
+        int result = Promises.loop(0, i -> i < 10_000, i -> i % 7 == 0 ? 
+                                                            executor.submit(() -> i + 1) : 
+                                                            Promises.success(i + 1)).join();
+        Assert.assertEquals(10_000, result);
+    }
+
+    @Test
+    public void testHopToExecutor() {
+        Thread caller = Thread.currentThread();
+        AtomicInteger callerIterations = new AtomicInteger();
+        int result = Promises.loop(0, i -> i < 1_000, i -> {
+            if (Thread.currentThread() == caller) {
+                callerIterations.incrementAndGet();
+            }
+            return Promises.success(i + 1);
+        }, executor, 10).join();
+        Assert.assertEquals(1_000, result);
+        Assert.assertTrue("Loop was not continued on executor", callerIterations.get() <= 10);
+    }
+
+    @Test
+    public void testHopLeavesCallerThread() {
+        // The hop task runs on the new thread while the caller is blocked in execute(...) 
+        // until the task returns, so the caller still holds the loop when the task starts
+        Executor gated = task -> {
+            CountDownLatch finished = new CountDownLatch(1);
+            new Thread(() -> {
+                try {
+                    task.run();
+                } finally {
+                    finished.countDown();
+                }
+            }).start();
+            try {
+                finished.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Thread caller = Thread.currentThread();
+        AtomicInteger callerIterations = new AtomicInteger();
+        int result = Promises.loop(0, i -> i < 100, i -> {
+            if (Thread.currentThread() == caller) {
+                callerIterations.incrementAndGet();
+            }
+            return Promises.success(i + 1);
+        }, gated, 10).join();
+        Assert.assertEquals(100, result);
+        Assert.assertEquals("Loop was continued on the caller thread after hop", 10, callerIterations.get());
+    }
+
+    @Test
+    public void testFailure() {
+        Promise<Integer> loop = Promises.loop(0, i -> i < 100, i -> i == 50 ? 
+                                                                Promises.failure(new IllegalStateException()) : 
+                                                                Promises.success(i + 1));
+        Assert.assertTrue(loop.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testCancellation() {
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        Promise<Integer> loop = Promises.loop(0, i -> true, i -> i < 5 ? Promises.success(i + 1) : pending);
+        Assert.assertTrue(loop.cancel(true));
+        Assert.assertTrue(pending.isCancelled());
+    }
+}
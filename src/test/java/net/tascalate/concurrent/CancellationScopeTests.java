@@ -0,0 +1,95 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.tascalate.concurrent.decorators.CompletionStageDecorator;
+
+public class CancellationScopeTests {
+
+    @Test
+    public void testMembersAreCancelled() {
+        CancellationScope scope = new CancellationScope();
+        CompletablePromise<String> a = scope.register(new CompletablePromise<>());
+        CompletablePromise<String> b = scope.register(new CompletablePromise<>());
+        CompletablePromise<String> done = scope.register(new CompletablePromise<>());
+        done.onSuccess("done");
+        
+        Assert.assertTrue(scope.cancel(true));
+        Assert.assertFalse(scope.cancel(true));
+        Assert.assertTrue(scope.isCancelled());
+        Assert.assertTrue(a.isCancelled());
+        Assert.assertTrue(b.isCancelled());
+        Assert.assertEquals("done", done.join());
+        Assert.assertEquals(0, scope.size());
+    }
+
+    @Test
+    public void testLateMemberIsCancelledImmediately() {
+        CancellationScope scope = new CancellationScope();
+        scope.cancel(true);
+        CompletablePromise<String> late = scope.register(new CompletablePromise<>());
+        Assert.assertTrue(late.isCancelled());
+    }
+
+    @Test
+    public void testCompletedMembersArePruned() {
+        CancellationScope scope = new CancellationScope();
+        for (int i = 0; i < 1000; i++) {
+            CompletablePromise<String> p = scope.register(new CompletablePromise<>());
+            p.onSuccess("value");
+        }
+        Assert.assertTrue(scope.size() < 1000);
+    }
+
+    @Test
+    public void testCompletedPlainStagesArePruned() {
+        CancellationScope scope = new CancellationScope();
+        for (int i = 0; i < 1000; i++) {
+            CompletableFuture<String> f = new CompletableFuture<>();
+            // Not a Future, so the completion is known only from the callback
+            scope.register(new CompletionStageDecorator<>(f));
+            f.complete("value");
+        }
+        Assert.assertTrue(scope.size() < 1000);
+    }
+
+    @Test
+    public void testLargeDependentGraphIsCancelledWithoutDeepRecursion() {
+        int size = 100_000;
+        CancellationScope scope = new CancellationScope();
+        CompletablePromise<Integer> origin = scope.register(new CompletablePromise<>());
+        List<Promise<Integer>> stages = new ArrayList<>(size);
+        DependentPromise<Integer> last = origin.dependent();
+        for (int i = 0; i < size; i++) {
+            // Every stage enlists its origin, so cancelling the last one would cascade through the whole chain
+            last = scope.register(last.thenApply(v -> v + 1, true));
+            stages.add(last);
+        }
+        Assert.assertTrue(scope.cancel(true));
+        Assert.assertTrue(origin.isCancelled());
+        for (Promise<Integer> stage : stages) {
+            Assert.assertTrue(stage.isDone());
+            Assert.assertTrue(stage.isCompletedExceptionally());
+        }
+    }
+}
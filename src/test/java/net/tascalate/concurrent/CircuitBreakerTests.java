@@ -0,0 +1,225 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CircuitBreakerTests {
+
+    @Test
+    public void testOpensOnFailureRate() {
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                                               .withSlidingWindow(10, 4)
+                                               .withFailureRateThreshold(0.5)
+                                               .build();
+        breaker.onSuccess(Duration.ZERO);
+        breaker.onSuccess(Duration.ZERO);
+        breaker.onFailure(Duration.ZERO, null);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onFailure(Duration.ZERO, null);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Assert.assertFalse(breaker.tryAcquirePermission());
+        Assert.assertEquals(1, breaker.getRejectedCalls());
+    }
+
+    @Test
+    public void testOpensOnSlowCalls() {
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                                               .withSlidingWindow(4, 2)
+                                               .withSlowCallThreshold(Duration.ofMillis(100), 1.0)
+                                               .build();
+        breaker.onSuccess(Duration.ofMillis(200));
+        breaker.onSuccess(Duration.ofMillis(300));
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenTransitions() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                                               .withSlidingWindow(2, 1)
+                                               .withOpenStateDuration(Duration.ofSeconds(1))
+                                               .withHalfOpenPermits(2)
+                                               .withTicker(clock::get)
+                                               .build();
+        breaker.onFailure(Duration.ZERO, null);
+        Assert.assertFalse(breaker.tryAcquirePermission());
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        Assert.assertTrue(breaker.tryAcquirePermission());
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        Assert.assertTrue(breaker.tryAcquirePermission());
+        Assert.assertFalse(breaker.tryAcquirePermission());
+        breaker.onSuccess(Duration.ZERO);
+        breaker.onSuccess(Duration.ZERO);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testConcurrentHalfOpenPermits() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                                               .withSlidingWindow(2, 1)
+                                               .withOpenStateDuration(Duration.ofSeconds(1))
+                                               .withHalfOpenPermits(3)
+                                               .withTicker(clock::get)
+                                               .build();
+        for (int round = 0; round < 100; round++) {
+            breaker.reset();
+            breaker.onFailure(Duration.ZERO, null);
+            Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+            clock.addAndGet(Duration.ofSeconds(1).toNanos());
+            AtomicInteger permitted = new AtomicInteger();
+            Thread[] threads = new Thread[8];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread(() -> {
+                    if (breaker.tryAcquirePermission()) {
+                        permitted.incrementAndGet();
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+            Assert.assertEquals(3, permitted.get());
+        }
+    }
+
+    @Test
+    public void testRatesStayInRangeWhileReset() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                                               .withSlidingWindow(16, 16)
+                                               .withFailureRateThreshold(1.0)
+                                               .build();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100_000; j++) {
+                    breaker.onFailure(Duration.ZERO, null);
+                    breaker.onSuccess(Duration.ZERO);
+                }
+            });
+            threads[i].start();
+        }
+        for (int j = 0; j < 10_000; j++) {
+            breaker.reset();
+            double rate = breaker.getFailureRate();
+            Assert.assertTrue("Failure rate is out of range: " + rate, rate >= 0 && rate <= 1);
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    @Test
+    public void testCancelledHalfOpenTrialReleasesPermit() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                                               .withSlidingWindow(2, 1)
+                                               .withOpenStateDuration(Duration.ofSeconds(1))
+                                               .withHalfOpenPermits(1)
+                                               .withTicker(clock::get)
+                                               .build();
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(1).withoutBackoff().withCircuitBreaker(breaker);
+        breaker.onFailure(Duration.ZERO, null);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        
+        CompletablePromise<Object> trial = new CompletablePromise<>();
+        Promise<Object> retry = Promises.retryFuture(ctx -> trial, policy);
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        Assert.assertFalse(breaker.tryAcquirePermission());
+        retry.cancel(true);
+        Assert.assertTrue(trial.isCancelled());
+        
+        // The permit of the cancelled trial is available to the next call, so the breaker recovers
+        Assert.assertEquals("value", Promises.retryFuture(ctx -> Promises.success("value"), policy).join());
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testThrowingHalfOpenTrialReopensBreaker() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                                               .withSlidingWindow(2, 1)
+                                               .withOpenStateDuration(Duration.ofSeconds(1))
+                                               .withHalfOpenPermits(1)
+                                               .withTicker(clock::get)
+                                               .build();
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(1).withoutBackoff().withCircuitBreaker(breaker);
+        breaker.onFailure(Duration.ZERO, null);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        
+        Promise<Object> retry = Promises.retryFuture(ctx -> {
+            throw new IllegalStateException();
+        }, policy);
+        Assert.assertTrue(retry.isCompletedExceptionally());
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testLostHalfOpenTrialsAreReissued() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                                               .withSlidingWindow(2, 1)
+                                               .withOpenStateDuration(Duration.ofSeconds(1))
+                                               .withHalfOpenPermits(1)
+                                               .withTicker(clock::get)
+                                               .build();
+        breaker.onFailure(Duration.ZERO, null);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        // The outcome of this trial is never reported
+        Assert.assertTrue(breaker.tryAcquirePermission());
+        Assert.assertFalse(breaker.tryAcquirePermission());
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        Assert.assertTrue(breaker.tryAcquirePermission());
+        breaker.onSuccess(Duration.ZERO);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testRetryFailsFastWhenOpen() {
+        CircuitBreaker breaker = CircuitBreaker.builder().withSlidingWindow(2, 2).build();
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(10).withoutBackoff().withCircuitBreaker(breaker);
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            Promises.retry((Callable<Object>)() -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException();
+            }, Runnable::run, policy).join();
+            Assert.fail("Exception is not propagated");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof CircuitBreakerOpenException);
+            Assert.assertTrue(ex.getCause().getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(2, calls.get());
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        
+        try {
+            Promises.retry((Callable<Object>)calls::incrementAndGet, Runnable::run, policy).join();
+            Assert.fail("Call is not rejected");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof CircuitBreakerOpenException);
+        }
+        Assert.assertEquals(2, calls.get());
+    }
+}
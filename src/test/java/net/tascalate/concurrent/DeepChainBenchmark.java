@@ -0,0 +1,98 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Builds chains of <code>DEPTH</code> async stages bound to an executor in different ways and measures time 
+ * per stage and number of executor dispatches per stage
+ */
+public class DeepChainBenchmark {
+    private static final int DEPTH = 1_000;
+    private static final int CHAINS = 2_000;
+    
+    public static void main(String[] argv) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        LongAdder dispatches = new LongAdder();
+        Executor executor = r -> {
+            dispatches.increment();
+            pool.execute(r);
+        };
+        Executor other = pool::execute;
+        try {
+            for (int round = 0; round < 3; round++) {
+                System.out.println("Round #" + round);
+                measure("CompletableFuture.supplyAsync", dispatches, () -> 
+                    chain(CompletableFuture.supplyAsync(() -> 0, executor), s -> s.thenApplyAsync(v -> v + 1, executor))
+                );
+                measure("asyncOn(executor)", dispatches, () -> 
+                    chain(CompletableTask.asyncOn(executor).thenApplyAsync(v -> 0), s -> s.thenApplyAsync(v -> v + 1))
+                );
+                measure("submit(call, executor)", dispatches, () -> 
+                    chain(CompletableTask.submit(() -> 0, executor), s -> s.thenApplyAsync(v -> v + 1))
+                );
+                measure("asyncOn(executor, true)", dispatches, () -> 
+                    chain(CompletableTask.asyncOn(executor, true).thenApplyAsync(v -> 0), s -> s.thenApplyAsync(v -> v + 1))
+                );
+                measure("submit(call, executor, true)", dispatches, () -> 
+                    chain(CompletableTask.submit(() -> 0, executor, true), s -> s.thenApplyAsync(v -> v + 1))
+                );
+                measure("re-bound defaultAsyncOn", dispatches, () -> 
+                    chain(CompletableTask.submit(() -> 0, other).defaultAsyncOn(other).defaultAsyncOn(executor), 
+                          s -> s.thenApplyAsync(v -> v + 1))
+                );
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    private interface Step {
+        CompletionStage<Integer> next(CompletionStage<Integer> stage);
+    }
+    
+    private static CompletionStage<Integer> chain(CompletionStage<Integer> first, Step step) {
+        CompletionStage<Integer> stage = first;
+        for (int i = 1; i < DEPTH; i++) {
+            stage = step.next(stage);
+        }
+        return stage;
+    }
+    
+    private static void measure(String name, LongAdder dispatches, Supplier<CompletionStage<Integer>> chain) {
+        dispatches.reset();
+        long start = System.nanoTime();
+        for (int i = 0; i < CHAINS; i++) {
+            int result = chain.get().toCompletableFuture().join();
+            if (result != DEPTH - 1) {
+                throw new IllegalStateException("Unexpected result: " + result);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long stages = (long)DEPTH * CHAINS;
+        System.out.println(String.format(
+            "  %-32s %8.1f ns/stage %6.2f dispatches/stage",
+            name, (double)elapsed / stages, (double)dispatches.sum() / stages
+        ));
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.tascalate.concurrent.delays.ErrorHintDelayPolicy.HintExtractor;
+
+public class ErrorHintDelayPolicyTests {
+
+    @Test
+    public void testHintFromErrorCause() {
+        DelayPolicy<Object> policy = DelayPolicy.fixedInterval(10)
+                                                .withErrorHint(HintExtractor.fromError(ThrottledException.class, e -> e.retryAfter));
+        RetryContext<Object> ctx = RetryContext.initial()
+                                               .nextRetry(Duration.ZERO, Duration.ZERO, 
+                                                          new CompletionException(new ThrottledException(Duration.ofSeconds(2))));
+        Assert.assertEquals(Duration.ofSeconds(2), policy.delay(ctx));
+    }
+
+    @Test
+    public void testFallbackWithoutHint() {
+        DelayPolicy<Object> policy = DelayPolicy.fixedInterval(10)
+                                                .withErrorHint(HintExtractor.fromError(ThrottledException.class, e -> e.retryAfter));
+        RetryContext<Object> ctx = RetryContext.initial()
+                                               .nextRetry(Duration.ZERO, Duration.ZERO, new IllegalStateException());
+        Assert.assertEquals(Duration.ofMillis(10), policy.delay(ctx));
+    }
+
+    @Test
+    public void testHintFromResultIsCapped() {
+        DelayPolicy<String> policy = DelayPolicy.<String>fixedInterval(10)
+                                                .withErrorHint(HintExtractor.fromResult(v -> Duration.ofSeconds(Long.parseLong(v))))
+                                                .withMaxDelay(Duration.ofSeconds(5));
+        RetryContext<String> ctx = RetryContext.<String>initial().nextRetry(Duration.ZERO, Duration.ZERO, "3");
+        Assert.assertEquals(Duration.ofSeconds(3), policy.delay(ctx));
+        ctx = ctx.nextRetry(Duration.ZERO, Duration.ZERO, "60");
+        Assert.assertEquals(Duration.ofSeconds(5), policy.delay(ctx));
+    }
+
+    @Test
+    public void testRetryWaitsForHint() {
+        long[] start = {0};
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT
+            .withMaxRetries(1)
+            .withBackoff(DelayPolicy.fixedInterval(1)
+                                    .withErrorHint(HintExtractor.fromError(ThrottledException.class, e -> e.retryAfter)));
+        Object result = Promises.retry((RetryCallable<Object, Object>)ctx -> {
+            if (ctx.getRetryCount() == 0) {
+                start[0] = System.nanoTime();
+                throw new ThrottledException(Duration.ofMillis(100));
+            }
+            return System.nanoTime() - start[0];
+        }, Runnable::run, policy).join();
+        Assert.assertTrue((Long)result >= Duration.ofMillis(100).toNanos());
+    }
+
+    static class ThrottledException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final Duration retryAfter;
+
+        ThrottledException(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+}
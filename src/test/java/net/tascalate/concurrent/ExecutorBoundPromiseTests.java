@@ -0,0 +1,114 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.tascalate.concurrent.decorators.ExecutorBoundPromise;
+
+public class ExecutorBoundPromiseTests {
+    private ExecutorService pool;
+    private AtomicInteger firstCalls;
+    private AtomicInteger secondCalls;
+    private Executor first;
+    private Executor second;
+
+    @Before
+    public void setUp() {
+        pool = Executors.newFixedThreadPool(2);
+        firstCalls = new AtomicInteger();
+        secondCalls = new AtomicInteger();
+        first = r -> { firstCalls.incrementAndGet(); pool.execute(r); };
+        second = r -> { secondCalls.incrementAndGet(); pool.execute(r); };
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testRebindingUsesNewExecutorWithSingleLayer() throws Exception {
+        CompletablePromise<String> origin = new CompletablePromise<>();
+        Promise<String> bound = origin.defaultAsyncOn(first).defaultAsyncOn(second);
+        Assert.assertSame(origin, bound.unwrap());
+        origin.complete("value");
+        Assert.assertEquals("VALUE", bound.thenApplyAsync(String::toUpperCase).get(1, TimeUnit.SECONDS));
+        Assert.assertEquals(0, firstCalls.get());
+        Assert.assertEquals(1, secondCalls.get());
+    }
+
+    @Test
+    public void testDependentRebindingUsesNewExecutor() throws Exception {
+        CompletablePromise<String> origin = new CompletablePromise<>();
+        DependentPromise<String> bound = origin.dependent().defaultAsyncOn(first).defaultAsyncOn(second);
+        origin.complete("value");
+        Assert.assertEquals("VALUE", bound.thenApplyAsync(String::toUpperCase, true).get(1, TimeUnit.SECONDS));
+        Assert.assertEquals(0, firstCalls.get());
+        Assert.assertEquals(1, secondCalls.get());
+    }
+
+    @Test
+    public void testEnforcedExecutorIsNotRebound() throws Exception {
+        Promise<Void> bound = CompletableTask.asyncOn(first, true);
+        Assert.assertSame(bound, bound.defaultAsyncOn(second));
+        bound.defaultAsyncOn(second).thenApplyAsync(v -> 1).get(1, TimeUnit.SECONDS);
+        Assert.assertEquals(1, firstCalls.get());
+        Assert.assertEquals(0, secondCalls.get());
+    }
+
+    @Test
+    public void testDirectSubmitWithEnforcedExecutor() throws Exception {
+        Promise<Integer> result = CompletableTask.submit(() -> 1, first, true)
+                                                 .thenApplyAsync(v -> v + 1, second)
+                                                 .thenApplyAsync(v -> v + 1);
+        Assert.assertEquals(Integer.valueOf(3), result.get(1, TimeUnit.SECONDS));
+        // Initial task and the last stage, no dispatch for the intermediate resolved promise
+        Assert.assertEquals(2, firstCalls.get());
+        Assert.assertEquals(1, secondCalls.get());
+    }
+
+    @Test
+    public void testRebindingKeepsSubclass() throws Exception {
+        CompletablePromise<String> origin = new CompletablePromise<>();
+        Promise<String> bound = new TaggedPromise<>(origin, first).defaultAsyncOn(second);
+        Assert.assertTrue(bound instanceof TaggedPromise);
+        origin.complete("value");
+        Assert.assertEquals("VALUE", bound.thenApplyAsync(String::toUpperCase).get(1, TimeUnit.SECONDS));
+        Assert.assertEquals(0, firstCalls.get());
+        Assert.assertEquals(1, secondCalls.get());
+    }
+
+    static class TaggedPromise<T> extends ExecutorBoundPromise<T> {
+        TaggedPromise(Promise<T> delegate, Executor executor) {
+            super(delegate, executor);
+        }
+
+        @Override
+        protected Promise<T> rebind(Executor executor) {
+            return new TaggedPromise<>(delegate, executor);
+        }
+    }
+}
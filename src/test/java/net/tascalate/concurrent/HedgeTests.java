@@ -0,0 +1,105 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.tascalate.concurrent.delays.PercentileDelayPolicy;
+
+public class HedgeTests {
+
+    @Test
+    public void testFastFirstAttemptIsNotHedged() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = Promises.hedge(() -> {
+            attempts.incrementAndGet();
+            return Promises.success("first");
+        }, DelayPolicy.fixedInterval(50), 3).join();
+        Assert.assertEquals("first", result);
+        Assert.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testSlowAttemptIsHedgedAndCancelled() throws Exception {
+        List<CompletableFuture<String>> attempts = new ArrayList<>();
+        Promise<String> result = Promises.hedge(() -> {
+            CompletableFuture<String> attempt = new CompletableFuture<>();
+            synchronized (attempts) {
+                attempts.add(attempt);
+                if (attempts.size() == 2) {
+                    attempt.complete("second");
+                }
+            }
+            return attempt;
+        }, DelayPolicy.fixedInterval(20), 3);
+        Assert.assertEquals("second", result.get(2, TimeUnit.SECONDS));
+        synchronized (attempts) {
+            Assert.assertEquals(2, attempts.size());
+            Assert.assertTrue("Loser is not cancelled", attempts.get(0).isCancelled());
+        }
+    }
+
+    @Test
+    public void testFailureLaunchesNextAttemptImmediately() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Promise<Integer> result = Promises.hedge(() -> 
+            attempts.incrementAndGet() < 3 ? 
+                Promises.<Integer>failure(new IllegalStateException()) : 
+                Promises.success(attempts.get()), 
+            DelayPolicy.fixedInterval(Duration.ofHours(1)), 3);
+        Assert.assertEquals(Integer.valueOf(3), result.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAllAttemptsFailed() {
+        Promise<Integer> result = Promises.hedge(() -> Promises.failure(new IllegalStateException()), 
+                                                 DelayPolicy.fixedInterval(10), 2);
+        try {
+            result.join();
+            Assert.fail("Exception is not propagated");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof MultitargetException);
+            Assert.assertEquals(2, ((MultitargetException)ex.getCause()).getExceptions().size());
+        }
+    }
+
+    @Test
+    public void testPercentileDelayPolicy() {
+        PercentileDelayPolicy<Object> policy = new PercentileDelayPolicy<>(90, Duration.ofMillis(100), 100, 10);
+        Assert.assertEquals(Duration.ofMillis(100), policy.delay(null));
+        for (int i = 1; i <= 100; i++) {
+            policy.recordLatency(Duration.ofMillis(i));
+        }
+        Assert.assertEquals(Duration.ofMillis(90), policy.delay(null));
+    }
+
+    @Test
+    public void testLatencyIsRecordedThroughWrappers() {
+        PercentileDelayPolicy<Object> policy = new PercentileDelayPolicy<>(50, Duration.ofHours(1), 10, 1);
+        Promise<Integer> result = Promises.hedge(() -> Promises.success(1), policy.withMaxDelay(Duration.ofHours(2)), 2);
+        Assert.assertEquals(Integer.valueOf(1), result.join());
+        Assert.assertTrue("Winner latency is not recorded", policy.delay(null).compareTo(Duration.ofHours(1)) < 0);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JitterDelayPolicyTests {
+
+    @Test
+    public void testFullJitterIsWithinTargetDelay() {
+        DelayPolicy<Object> policy = DelayPolicy.fixedInterval(100).withFullJitter();
+        for (int i = 0; i < 1000; i++) {
+            Duration d = policy.delay(RetryContext.initial());
+            Assert.assertFalse(d.isNegative());
+            Assert.assertTrue(d.compareTo(Duration.ofMillis(100)) <= 0);
+        }
+    }
+
+    @Test
+    public void testDecorrelatedJitterIsBounded() {
+        DelayPolicy<Object> policy = DelayPolicy.decorrelatedJitter(10, 200);
+        RetryContext<Object> ctx = RetryContext.initial();
+        for (int i = 0; i < 1000; i++) {
+            Duration previous = ctx.getLastBackoffDelay();
+            Duration d = policy.delay(ctx);
+            Assert.assertTrue(d.compareTo(Duration.ofMillis(10)) >= 0);
+            Assert.assertTrue(d.compareTo(Duration.ofMillis(200)) <= 0);
+            if (DelayPolicy.isValid(previous)) {
+                Assert.assertTrue(d.toNanos() <= previous.toNanos() * 3);
+            }
+            ctx = ctx.overrideLastBackoffDelay(d);
+        }
+    }
+
+    @Test
+    public void testRetryContextReportsLastBackoff() {
+        List<Duration> backoffs = new ArrayList<>();
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(3)
+                                                        .withBackoff(DelayPolicy.fixedInterval(5));
+        Promises.retry((RetryCallable<Object, Object>)ctx -> {
+            backoffs.add(ctx.getLastBackoffDelay());
+            if (ctx.getRetryCount() < 2) {
+                throw new IllegalStateException();
+            }
+            return "done";
+        }, Runnable::run, policy).join();
+        Assert.assertEquals(3, backoffs.size());
+        Assert.assertEquals(Duration.ZERO, backoffs.get(0));
+        Assert.assertEquals(Duration.ofMillis(5), backoffs.get(1));
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Discrete-time simulation of N clients that hit an overloaded server at the same moment and retry 
+ * with the given backoff policy. The server accepts at most CAPACITY calls per time slot, all other 
+ * calls in the slot fail. For every policy prints the number of calls per slot (the load distribution), 
+ * total number of calls and the time when the last client succeeded.
+ */
+public class JitterSimulation {
+    private static final int CLIENTS   = 100;
+    private static final int CAPACITY  = 10;
+    private static final long SLOT_MS  = 10;
+    private static final int MAX_SLOTS = 60;
+    
+    public static void main(String[] argv) {
+        Map<String, DelayPolicy<Object>> policies = new LinkedHashMap<>();
+        policies.put("Exponential, no jitter", DelayPolicy.exponential(10, 2).withMaxDelay(1000));
+        policies.put("Exponential, proportional jitter", DelayPolicy.exponential(10, 2).withMaxDelay(1000).withProportionalJitter());
+        policies.put("Exponential, full jitter", DelayPolicy.exponential(10, 2).withMaxDelay(1000).withFullJitter());
+        policies.put("Decorrelated jitter", DelayPolicy.decorrelatedJitter(10, 1000));
+        
+        for (Map.Entry<String, DelayPolicy<Object>> e : policies.entrySet()) {
+            simulate(e.getKey(), e.getValue());
+        }
+    }
+    
+    private static void simulate(String name, DelayPolicy<Object> policy) {
+        PriorityQueue<Call> calls = new PriorityQueue<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            calls.add(new Call(0, RetryContext.initial()));
+        }
+        Map<Long, Integer> load = new LinkedHashMap<>();
+        long totalCalls = 0;
+        long lastSuccess = 0;
+        while (!calls.isEmpty()) {
+            Call call = calls.poll();
+            long slot = call.timeMillis / SLOT_MS;
+            int accepted = load.merge(slot, 1, Integer::sum);
+            totalCalls++;
+            if (accepted <= CAPACITY) {
+                lastSuccess = Math.max(lastSuccess, call.timeMillis);
+            } else {
+                RetryContext<Object> next = call.ctx.overrideRetryCount(call.ctx.getRetryCount() + 1);
+                Duration delay = policy.delay(next);
+                next = next.overrideLastBackoffDelay(delay);
+                calls.add(new Call(call.timeMillis + Math.max(1, delay.toMillis()), next));
+            }
+        }
+        System.out.println(name + ": " + totalCalls + " calls, last client succeeded at " + lastSuccess + "ms");
+        StringBuilder histogram = new StringBuilder();
+        for (long slot = 0; slot < MAX_SLOTS; slot++) {
+            int count = load.getOrDefault(slot, 0);
+            histogram.append(String.format("%5dms %4d ", slot * SLOT_MS, count));
+            for (int i = 0; i < count; i++) {
+                histogram.append(i < CAPACITY ? '#' : '.');
+            }
+            histogram.append('\n');
+        }
+        System.out.println(histogram);
+    }
+    
+    static class Call implements Comparable<Call> {
+        final long timeMillis;
+        final RetryContext<Object> ctx;
+        
+        Call(long timeMillis, RetryContext<Object> ctx) {
+            this.timeMillis = timeMillis;
+            this.ctx = ctx;
+        }
+        
+        @Override
+        public int compareTo(Call other) {
+            return Long.compare(timeMillis, other.timeMillis);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MultitargetExceptionTests {
+
+    @Test
+    public void testDenseListIsPreserved() {
+        Exception a = new Exception("a");
+        Exception b = new Exception("b");
+        MultitargetException ex = new MultitargetException("message", Arrays.asList(null, a, null, b));
+        Assert.assertEquals("message", ex.getMessage());
+        Assert.assertEquals(Arrays.asList(null, a, null, b), ex.getExceptions());
+        Assert.assertEquals(a, ex.getFirstException().get());
+        Assert.assertNull(ex.getCause());
+        Assert.assertArrayEquals(new Throwable[] {a, b}, ex.getSuppressed());
+    }
+
+    @Test
+    public void testSparseExceptionBuildsMessageLazily() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Exception a = new Exception("a");
+        MultitargetException ex = MultitargetException.sparse(
+            () -> "lazy " + calls.incrementAndGet(), 10_000, new int[] {9_999}, new Throwable[] {a}
+        );
+        Assert.assertEquals(0, calls.get());
+        Assert.assertEquals(10_000, ex.getExceptions().size());
+        Assert.assertNull(ex.getExceptions().get(0));
+        Assert.assertSame(a, ex.getExceptions().get(9_999));
+        Assert.assertSame(a, ex.getCause());
+        Assert.assertEquals("lazy 1", ex.getMessage());
+        Assert.assertEquals("lazy 1", ex.getMessage());
+        Assert.assertEquals(1, calls.get());
+        
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        ex.printExceptions(new PrintStream(printed, true));
+        Assert.assertTrue(printed.toString().contains("[09999] -> "));
+        Assert.assertTrue(printed.toString().contains("java.lang.Exception: a"));
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(ex);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            MultitargetException copy = (MultitargetException)in.readObject();
+            Assert.assertEquals("lazy 1", copy.getMessage());
+            Assert.assertEquals(10_000, copy.getExceptions().size());
+            Assert.assertEquals("a", copy.getExceptions().get(9_999).getMessage());
+        }
+    }
+
+    @Test
+    public void testAggregatedFailureOverManyStages() throws InterruptedException {
+        int size = 10_000;
+        List<CompletionStage<Object>> promises = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            promises.add(new CompletablePromise<>());
+        }
+        Promise<List<Object>> all = Promises.all(promises);
+        Exception error = new Exception("error");
+        ((CompletablePromise<Object>)promises.get(7_777)).onFailure(error);
+        try {
+            all.get();
+            Assert.fail("Failure expected");
+        } catch (ExecutionException ex) {
+            MultitargetException mex = (MultitargetException)ex.getCause();
+            Assert.assertEquals(size, mex.getExceptions().size());
+            Assert.assertSame(error, mex.getExceptions().get(7_777));
+            Assert.assertNull(mex.getExceptions().get(7_776));
+            Assert.assertEquals("Aggregated promise was completed exceptionally (1 out of 10000)", mex.getMessage());
+        }
+    }
+
+    @Test
+    public void testConcurrentFailuresMatchReportedCount() throws Exception {
+        int size = 8;
+        for (int round = 0; round < 200; round++) {
+            List<CompletablePromise<Object>> promises = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                promises.add(new CompletablePromise<>());
+            }
+            // At most 3 errors are reported
+            Promise<List<Object>> aggregated = Promises.atLeast(size - 2, 2, true, promises);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>(size);
+            for (CompletablePromise<Object> p : promises) {
+                Thread t = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    p.failure(new Exception("error"));
+                });
+                t.start();
+                threads.add(t);
+            }
+            start.countDown();
+            for (Thread t : threads) {
+                t.join();
+            }
+            try {
+                aggregated.get();
+                Assert.fail("Failure expected");
+            } catch (ExecutionException ex) {
+                MultitargetException mex = (MultitargetException)ex.getCause();
+                long recorded = mex.getExceptions().stream().filter(e -> null != e).count();
+                Assert.assertEquals(3, recorded);
+                Assert.assertEquals("Aggregated promises were completed exceptionally (3 out of 8)", mex.getMessage());
+            }
+        }
+    }
+}
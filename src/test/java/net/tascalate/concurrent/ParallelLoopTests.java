@@ -0,0 +1,120 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelLoopTests {
+
+    private TaskExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = TaskExecutors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testBoundedConcurrency() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<Integer> result = Promises.forEachAsync(IntStream.range(0, 100).boxed(), 3, i -> executor.submit(() -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(1);
+            } finally {
+                active.decrementAndGet();
+            }
+            return i * 2;
+        }), Collectors.toList(), true).join();
+        Assert.assertEquals(100, result.size());
+        Assert.assertEquals(IntStream.range(0, 100).map(i -> i * 2).sum(), result.stream().mapToInt(Integer::intValue).sum());
+        Assert.assertTrue("Concurrency limit exceeded: " + maxActive.get(), maxActive.get() <= 3);
+    }
+
+    @Test
+    public void testFailFastCancelsInFlight() {
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        Promise<Void> result = Promises.forEachAsync(IntStream.range(0, 10).boxed().iterator(), 2, i -> 
+            i == 0 ? pending : Promises.failure(new IllegalStateException())
+        );
+        Assert.assertTrue(result.isCompletedExceptionally());
+        Assert.assertTrue(pending.isCancelled());
+    }
+
+    @Test
+    public void testCollectAllErrors() {
+        AtomicInteger started = new AtomicInteger();
+        Promise<Long> result = Promises.forEachAsync(IntStream.range(0, 10).boxed().iterator(), 2, i -> {
+            started.incrementAndGet();
+            return i % 3 == 0 ? Promises.<Integer>failure(new IllegalStateException()) : executor.submit(() -> i);
+        }, Collectors.counting(), false);
+        try {
+            result.join();
+            Assert.fail("Exception is not propagated");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof MultitargetException);
+            Assert.assertEquals(4, ((MultitargetException)ex.getCause()).getExceptions().size());
+        }
+        Assert.assertEquals(10, started.get());
+    }
+
+    @Test
+    public void testCancellationOfResult() {
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        CompletableFuture<Object> second = new CompletableFuture<>();
+        AtomicInteger counter = new AtomicInteger();
+        Promise<Void> result = Promises.parallelLoop(() -> counter.get() < 2, 5, () -> 
+            counter.getAndIncrement() == 0 ? first : second
+        );
+        Assert.assertTrue(result.cancel(true));
+        Assert.assertTrue(first.isCancelled());
+        Assert.assertTrue(second.isCancelled());
+    }
+
+    @Test
+    public void testStreamLoopIsNotDependentPromise() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Promise<List<Integer>> completed = Promises.forEachAsync(
+            IntStream.range(0, 3).boxed().onClose(() -> closed.set(true)), 2, Promises::success, Collectors.toList(), true
+        );
+        Assert.assertFalse(completed instanceof DependentPromise);
+        Assert.assertEquals(3, completed.join().size());
+        Assert.assertTrue(closed.get());
+        
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        Promise<List<Integer>> cancelled = Promises.forEachAsync(
+            IntStream.range(0, 10).boxed(), 2, i -> pending, Collectors.toList(), true
+        );
+        Assert.assertTrue(cancelled.cancel(true));
+        Assert.assertTrue(pending.isCancelled());
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PromiseScopeTests {
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testShutdownOnFailureCancelsSiblings() throws Exception {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+        Promise<Object> slow;
+        try (PromiseScope.ShutdownOnFailure scope = new PromiseScope.ShutdownOnFailure(executor)) {
+            slow = scope.fork(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException ex) {
+                    interrupted.set(true);
+                }
+                return "slow";
+            });
+            started.await();
+            scope.fork(() -> {
+                throw new IllegalStateException("failed");
+            });
+            scope.join().get(5, TimeUnit.SECONDS);
+            Assert.assertTrue(scope.isShutdown());
+            Assert.assertTrue(scope.exception().get() instanceof IllegalStateException);
+            try {
+                scope.throwIfFailed();
+                Assert.fail("Failure expected");
+            } catch (ExecutionException ex) {
+                Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+            }
+        }
+        Assert.assertTrue(slow.isCancelled());
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertTrue("Abandoned subtask is not interrupted", interrupted.get());
+    }
+
+    @Test
+    public void testShutdownOnSuccessReturnsFirstResult() throws Exception {
+        try (PromiseScope.ShutdownOnSuccess<String> scope = new PromiseScope.ShutdownOnSuccess<>(executor)) {
+            Promise<String> slow = scope.fork(() -> {
+                Thread.sleep(10_000);
+                return "slow";
+            });
+            scope.fork(() -> {
+                throw new IllegalStateException("failed");
+            });
+            scope.fork(() -> "fast");
+            scope.join().get(5, TimeUnit.SECONDS);
+            Assert.assertEquals("fast", scope.result());
+            Assert.assertTrue(slow.isCancelled());
+        }
+    }
+
+    @Test
+    public void testShutdownOnSuccessWithoutSuccess() throws Exception {
+        try (PromiseScope.ShutdownOnSuccess<String> scope = new PromiseScope.ShutdownOnSuccess<>(executor)) {
+            scope.fork(() -> {
+                throw new IllegalStateException("failed");
+            });
+            scope.join().get(5, TimeUnit.SECONDS);
+            try {
+                scope.result();
+                Assert.fail("Failure expected");
+            } catch (ExecutionException ex) {
+                Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+            }
+        }
+    }
+
+    @Test
+    public void testForkAfterShutdownAndClose() {
+        PromiseScope<String> scope = new PromiseScope<>(executor);
+        scope.shutdown();
+        Assert.assertTrue(scope.fork(() -> "value").isCancelled());
+        scope.close();
+        try {
+            scope.fork(() -> "value");
+            Assert.fail("Closed scope accepted subtask");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testAsyncClose() throws Exception {
+        PromiseScope<String> scope = new PromiseScope<>();
+        Promise<String> slow = scope.fork(() -> {
+            Thread.sleep(10_000);
+            return "slow";
+        });
+        Promises.from(scope.asAsyncCloseable().close()).get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(slow.isCancelled());
+        Assert.assertTrue(scope.isShutdown());
+    }
+
+    @Test
+    public void testRejectedSubtaskIsNotAwaited() throws Exception {
+        PromiseScope<String> scope = new PromiseScope<>(r -> {
+            throw new RejectedExecutionException("rejected");
+        });
+        try {
+            scope.fork(() -> "value");
+            Assert.fail("Rejection expected");
+        } catch (RejectedExecutionException ex) {
+            // Expected
+        }
+        scope.join().get(5, TimeUnit.SECONDS);
+        Thread closer = new Thread(scope::close);
+        closer.start();
+        closer.join(5_000);
+        Assert.assertFalse("Scope is not closed", closer.isAlive());
+    }
+
+    @Test
+    public void testCloseAwaitsCodeOfCancelledSubtask() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+        PromiseScope<String> scope = new PromiseScope<>(executor);
+        Promise<String> stubborn = scope.fork(() -> {
+            started.countDown();
+            // Ignores interruption
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException ex) {
+                    // Continue
+                }
+            }
+            finished.set(true);
+            return "stubborn";
+        });
+        started.await();
+        Thread closer = new Thread(scope::close);
+        closer.start();
+        closer.join(200);
+        Assert.assertTrue(stubborn.isCancelled());
+        Assert.assertTrue("Scope is closed while subtask is running", closer.isAlive());
+        release.countDown();
+        closer.join(5_000);
+        Assert.assertFalse("Scope is not closed", closer.isAlive());
+        Assert.assertTrue(finished.get());
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetryBatchTests {
+
+    @Test
+    public void testOnlyFailedItemsAreResubmitted() {
+        List<List<Integer>> rounds = Collections.synchronizedList(new ArrayList<>());
+        Map<Integer, Integer> failuresLeft = new HashMap<>();
+        failuresLeft.put(2, 1);
+        failuresLeft.put(4, 2);
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(3).withBackoff(DelayPolicy.fixedInterval(1));
+        Map<Integer, Try<String>> results = Promises.retryBatch(Arrays.asList(1, 2, 3, 4), (List<Integer> batch) -> {
+            rounds.add(new ArrayList<>(batch));
+            Map<Integer, Try<String>> result = new HashMap<>();
+            for (Integer i : batch) {
+                int left = failuresLeft.getOrDefault(i, 0);
+                if (left > 0) {
+                    failuresLeft.put(i, left - 1);
+                    result.put(i, Try.failure(new IllegalStateException()));
+                } else {
+                    result.put(i, Try.success("v" + i));
+                }
+            }
+            return CompletableFuture.completedFuture(result);
+        }, policy).join();
+        Assert.assertEquals(Arrays.asList(Arrays.asList(1, 2, 3, 4), Arrays.asList(2, 4), Arrays.asList(4)), rounds);
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4), new ArrayList<>(results.keySet()));
+        for (int i = 1; i <= 4; i++) {
+            Assert.assertEquals("v" + i, results.get(i).done());
+        }
+    }
+
+    @Test
+    public void testItemsGiveUpIndividually() {
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(2).withoutBackoff();
+        List<Integer> calls = Collections.synchronizedList(new ArrayList<>());
+        Map<String, Try<String>> results = Promises.retryBatch(Arrays.asList("ok", "bad"), (List<String> batch) -> {
+            calls.add(batch.size());
+            Map<String, Try<String>> result = new HashMap<>();
+            // Result for "bad" is missing
+            if (batch.contains("ok")) {
+                result.put("ok", Try.success("done"));
+            }
+            return CompletableFuture.completedFuture(result);
+        }, policy).join();
+        Assert.assertEquals(Arrays.asList(2, 1, 1), calls);
+        Assert.assertEquals("done", results.get("ok").done());
+        Assert.assertFalse(results.get("bad").isSuccess());
+        Assert.assertTrue(results.get("bad").error() instanceof RetryException);
+    }
+
+    @Test
+    public void testFailedRoundFailsEveryItem() {
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(1).withoutBackoff();
+        int[] rounds = {0};
+        Map<Integer, Try<Integer>> results = Promises.retryBatch(Arrays.asList(1, 2), (List<Integer> batch) -> {
+            CompletionStage<Map<Integer, Try<Integer>>> result;
+            if (rounds[0]++ == 0) {
+                result = Promises.failure(new IllegalStateException());
+            } else {
+                Map<Integer, Try<Integer>> values = new HashMap<>();
+                batch.forEach(i -> values.put(i, Try.success(i * 10)));
+                result = CompletableFuture.completedFuture(values);
+            }
+            return result;
+        }, policy).join();
+        Assert.assertEquals(2, rounds[0]);
+        Assert.assertEquals(Integer.valueOf(10), results.get(1).done());
+        Assert.assertEquals(Integer.valueOf(20), results.get(2).done());
+    }
+}
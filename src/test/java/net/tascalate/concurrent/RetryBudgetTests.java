@@ -0,0 +1,80 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetryBudgetTests {
+
+    @Test
+    public void testBudgetIsExhausted() {
+        AtomicLong clock = new AtomicLong();
+        RetryBudget budget = new RetryBudget(0.5, 0, Duration.ofSeconds(10), clock::get);
+        Assert.assertFalse(budget.tryWithdraw());
+        for (int i = 0; i < 4; i++) {
+            budget.deposit();
+        }
+        Assert.assertEquals(2, budget.getBalance());
+        Assert.assertTrue(budget.tryWithdraw());
+        Assert.assertTrue(budget.tryWithdraw());
+        Assert.assertFalse(budget.tryWithdraw());
+        Assert.assertEquals(2, budget.getRejections());
+    }
+
+    @Test
+    public void testDepositsExpire() {
+        AtomicLong clock = new AtomicLong();
+        RetryBudget budget = new RetryBudget(1, 0, Duration.ofSeconds(2), clock::get);
+        budget.deposit();
+        Assert.assertEquals(1, budget.getBalance());
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        Assert.assertEquals(1, budget.getBalance());
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        Assert.assertEquals(0, budget.getBalance());
+    }
+
+    @Test
+    public void testMinRetriesPerSecond() {
+        RetryBudget budget = new RetryBudget(0, 1, Duration.ofSeconds(3), () -> 0);
+        Assert.assertEquals(3, budget.getBalance());
+    }
+
+    @Test
+    public void testPolicyDeniesRetriesOverBudget() {
+        AtomicInteger calls = new AtomicInteger();
+        RetryBudget budget = new RetryBudget(0, 0, Duration.ofSeconds(10), () -> 0);
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(5).withoutBackoff().withRetryBudget(budget);
+        try {
+            Promises.retry((Callable<Object>)() -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException();
+            }, Runnable::run, policy).join();
+            Assert.fail("Exception is not propagated");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof RetryException);
+        }
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(1, budget.getDeposits());
+        Assert.assertEquals(1, budget.getRejections());
+    }
+}
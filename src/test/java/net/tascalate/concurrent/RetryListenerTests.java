@@ -0,0 +1,149 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetryListenerTests {
+
+    @Test
+    public void testEventsOfSuccessfulRetry() {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger calls = new AtomicInteger();
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(3)
+                                                        .withBackoff(DelayPolicy.fixedInterval(1))
+                                                        .withListener(new RecordingListener(events));
+        Promises.retry((Callable<Object>)() -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new IllegalStateException();
+            }
+            return "done";
+        }, Runnable::run, policy).join();
+        Assert.assertEquals(
+            Arrays.asList("backoff", "start#0", "failure#1:IllegalStateException", "backoff", "start#1", "success#1:done"), 
+            events
+        );
+    }
+
+    @Test
+    public void testGiveUpReasons() {
+        RetryStatistics stats = new RetryStatistics("test");
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(2).withoutBackoff().withListener(stats);
+        try {
+            Promises.retry((Callable<Object>)() -> {
+                throw new IllegalStateException();
+            }, Runnable::run, policy).join();
+            Assert.fail("Exception is not propagated");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof RetryException);
+        }
+        try {
+            Promises.retry((Callable<Object>)() -> {
+                throw new Error();
+            }, Runnable::run, policy).join();
+            Assert.fail("Exception is not propagated");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof RetryException);
+        }
+        Assert.assertEquals(4, stats.getAttempts());
+        Assert.assertEquals(4, stats.getFailures());
+        Assert.assertEquals(0, stats.getSuccesses());
+        Assert.assertEquals(1, stats.getGiveUps(RetryListener.GiveUpReason.MAX_RETRIES_EXCEEDED));
+        Assert.assertEquals(1, stats.getGiveUps(RetryListener.GiveUpReason.NOT_RETRYABLE));
+        Assert.assertEquals(2, stats.getGiveUps());
+    }
+
+    @Test
+    public void testStatisticsHistograms() {
+        RetryStatistics stats = RetryStatistics.named("histograms");
+        Assert.assertSame(stats, RetryStatistics.named("histograms"));
+        RetryContext<Object> ctx = RetryContext.initial();
+        for (int i = 0; i < 99; i++) {
+            stats.onSuccess(ctx, null, Duration.ofMillis(1));
+        }
+        stats.onSuccess(ctx, null, Duration.ofSeconds(1));
+        stats.onBackoff(ctx, Duration.ofMillis(10));
+        Duration p50 = stats.getAttemptLatencyPercentile(50);
+        Assert.assertTrue(p50.compareTo(Duration.ofMillis(1)) >= 0 && p50.compareTo(Duration.ofMillis(2)) < 0);
+        Assert.assertTrue(stats.getAttemptLatencyPercentile(100).compareTo(Duration.ofSeconds(1)) >= 0);
+        Assert.assertEquals(Duration.ofMillis(10), stats.getTotalBackoff());
+        stats.reset();
+        Assert.assertEquals(0, stats.getSuccesses());
+    }
+
+    @Test
+    public void testStatisticsUnregistered() {
+        RetryStatistics stats = RetryStatistics.named("unregistered");
+        Assert.assertTrue(RetryStatistics.unregister("unregistered"));
+        Assert.assertFalse(RetryStatistics.unregister("unregistered"));
+        Assert.assertNotSame(stats, RetryStatistics.named("unregistered"));
+        RetryStatistics.unregister("unregistered");
+    }
+
+    @Test
+    public void testFailingListenerIsIgnored() {
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withListener(new RetryListener<Object>() {
+            @Override
+            public void onAttemptStart(RetryContext<?> context) {
+                throw new IllegalStateException();
+            }
+        });
+        Assert.assertEquals("done", Promises.retry((Callable<Object>)() -> "done", Runnable::run, policy).join());
+    }
+
+    static class RecordingListener implements RetryListener<Object> {
+        private final List<String> events;
+
+        RecordingListener(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onAttemptStart(RetryContext<?> context) {
+            events.add("start#" + context.getRetryCount());
+        }
+
+        @Override
+        public void onAttemptFailure(RetryContext<?> context, Throwable error, Duration duration) {
+            events.add("failure#" + context.getRetryCount() + ":" + error.getClass().getSimpleName());
+        }
+
+        @Override
+        public void onBackoff(RetryContext<?> context, Duration delay) {
+            events.add("backoff");
+        }
+
+        @Override
+        public void onGiveUp(RetryContext<?> context, GiveUpReason reason) {
+            events.add("giveUp:" + reason);
+        }
+
+        @Override
+        public void onSuccess(RetryContext<?> context, Object result, Duration duration) {
+            events.add("success#" + context.getRetryCount() + ":" + result);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetryPolicyTests {
+
+    @Test
+    public void testClassificationByErrorClass() {
+        RetryPolicy<Object> policy = new RetryPolicy<>().retryOn(IOException.class).abortOn(SocketTimeoutException.class);
+        Assert.assertTrue(retryable(policy, new IOException()));
+        Assert.assertFalse(retryable(policy, new SocketTimeoutException()));
+        Assert.assertFalse(retryable(policy, new IllegalStateException()));
+        // Cached verdicts are the same
+        Assert.assertTrue(retryable(policy, new IOException()));
+        Assert.assertFalse(retryable(policy, new SocketTimeoutException()));
+    }
+
+    @Test
+    public void testCauseChainIsIgnoredByDefault() {
+        RetryPolicy<Object> policy = new RetryPolicy<>().retryOn(SocketTimeoutException.class);
+        Assert.assertFalse(retryable(policy, new CompletionException(new SocketTimeoutException())));
+    }
+
+    @Test
+    public void testCauseChainMatching() {
+        RetryPolicy<Object> policy = new RetryPolicy<>().retryOn(SocketTimeoutException.class)
+                                                        .abortOn(SecurityException.class)
+                                                        .withCauseMatching();
+        Assert.assertTrue(retryable(policy, new CompletionException(new SocketTimeoutException())));
+        Assert.assertFalse(retryable(policy, new CompletionException(new IllegalStateException())));
+        Assert.assertFalse(retryable(policy, new SocketTimeoutException() {
+            private static final long serialVersionUID = 1L;
+            {
+                initCause(new SecurityException());
+            }
+        }));
+        Assert.assertFalse(retryable(policy.withoutCauseMatching(), 
+                                     new CompletionException(new SocketTimeoutException())));
+    }
+
+    @Test
+    public void testCyclicCauseChain() {
+        RetryPolicy<Object> policy = new RetryPolicy<>().retryOn(SocketTimeoutException.class).withCauseMatching();
+        CyclicException a = new CyclicException();
+        CyclicException b = new CyclicException();
+        a.initCause(b);
+        b.initCause(a);
+        Assert.assertFalse(retryable(policy, a));
+    }
+
+    private static boolean retryable(RetryPolicy<Object> policy, Throwable error) {
+        return policy.exceptionClassRetryable(RetryContext.initial().nextRetry(Duration.ZERO, Duration.ZERO, error));
+    }
+
+    static class CyclicException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
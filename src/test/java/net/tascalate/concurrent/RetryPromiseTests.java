@@ -0,0 +1,132 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetryPromiseTests {
+
+    @Test
+    public void testRetriesUntilSuccess() {
+        AtomicInteger calls = new AtomicInteger();
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(5).withBackoff(DelayPolicy.fixedInterval(1));
+        Object result = Promises.retry((Callable<Object>)() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalStateException();
+            }
+            return "done";
+        }, Runnable::run, policy).join();
+        Assert.assertEquals("done", result);
+        Assert.assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testGivesUpAfterMaxRetries() {
+        AtomicInteger calls = new AtomicInteger();
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(3).withoutBackoff();
+        try {
+            Promises.retry((Callable<Object>)() -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException();
+            }, Runnable::run, policy).join();
+            Assert.fail("Exception is not propagated");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof RetryException);
+            Assert.assertTrue(ex.getCause().getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testManySynchronousFailuresDoNotOverflowStack() {
+        AtomicInteger calls = new AtomicInteger();
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(100_000).withoutBackoff();
+        Object result = Promises.retry((Callable<Object>)() -> {
+            if (calls.incrementAndGet() <= 100_000) {
+                throw new IllegalStateException();
+            }
+            return "done";
+        }, Runnable::run, policy).join();
+        Assert.assertEquals("done", result);
+    }
+
+    @Test
+    public void testAttemptTimeout() {
+        CompletableFuture<Object> stuck = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(1)
+                                                        .withoutBackoff()
+                                                        .withTimeout(DelayPolicy.fixedInterval(50));
+        Promise<Object> result = Promises.retryFuture(() -> {
+            return calls.incrementAndGet() == 1 ? stuck : CompletableFuture.completedFuture("second");
+        }, policy);
+        Assert.assertEquals("second", result.join());
+        Assert.assertTrue("Timed out attempt is not cancelled", stuck.isCancelled());
+    }
+
+    @Test
+    public void testAttemptTimeoutExhaustsRetries() {
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(0)
+                                                        .withoutBackoff()
+                                                        .withTimeout(DelayPolicy.fixedInterval(20));
+        try {
+            Promises.retryFuture(() -> new CompletableFuture<Object>(), policy).join();
+            Assert.fail("Exception is not propagated");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof RetryException);
+            Assert.assertTrue(ex.getCause().getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void testCancellationStopsRetries() throws Exception {
+        CompletableFuture<Object> attempt = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(5).withoutBackoff();
+        Promise<Object> result = Promises.retryFuture(() -> {
+            calls.incrementAndGet();
+            return attempt;
+        }, policy);
+        result.cancel(true);
+        Assert.assertTrue("Current attempt is not cancelled", attempt.isCancelled());
+        TimeUnit.MILLISECONDS.sleep(50);
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testCancellationDuringBackoff() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(5)
+                                                        .withBackoff(DelayPolicy.fixedInterval(Duration.ofMillis(100)));
+        Promise<Object> result = Promises.retry((Callable<Object>)() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException();
+        }, Runnable::run, policy);
+        result.cancel(true);
+        TimeUnit.MILLISECONDS.sleep(250);
+        Assert.assertTrue(result.isCancelled());
+        Assert.assertTrue(calls.get() <= 1);
+    }
+}
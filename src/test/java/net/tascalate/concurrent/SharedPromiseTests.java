@@ -0,0 +1,116 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedPromiseTests {
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testForksAreResolvedWithOriginResult() throws Exception {
+        CompletablePromise<String> origin = new CompletablePromise<>();
+        SharedPromise<String> shared = origin.share();
+        Promise<String> a = shared.fork();
+        Promise<String> b = shared.fork();
+        origin.onSuccess("value");
+        Assert.assertEquals("value", a.get(1, TimeUnit.SECONDS));
+        Assert.assertEquals("value", b.get(1, TimeUnit.SECONDS));
+        // Late fork of the completed origin
+        Assert.assertEquals("value", shared.fork().get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOriginIsCancelledWithLastFork() {
+        CompletablePromise<String> origin = new CompletablePromise<>();
+        SharedPromise<String> shared = origin.share();
+        Promise<String> a = shared.fork();
+        Promise<String> b = shared.fork();
+        Assert.assertEquals(2, shared.forks());
+        
+        Assert.assertTrue(a.cancel(true));
+        Assert.assertFalse(origin.isDone());
+        Assert.assertFalse(b.isDone());
+        Assert.assertFalse(shared.isCancelled());
+        
+        Assert.assertTrue(b.cancel(true));
+        Assert.assertTrue(origin.isCancelled());
+        Assert.assertTrue(shared.isCancelled());
+        Assert.assertTrue(shared.fork().isCancelled());
+    }
+
+    @Test
+    public void testRepeatedCancelIsCountedOnce() {
+        CompletablePromise<String> origin = new CompletablePromise<>();
+        SharedPromise<String> shared = origin.share();
+        Promise<String> a = shared.fork();
+        Promise<String> b = shared.fork();
+        Assert.assertTrue(a.cancel(true));
+        a.cancel(true);
+        Assert.assertFalse(origin.isDone());
+        Assert.assertEquals(1, shared.forks());
+        b.cancel(true);
+        Assert.assertTrue(origin.isCancelled());
+    }
+
+    @Test
+    public void testConcurrentForkAndCancel() throws Exception {
+        CompletablePromise<String> origin = new CompletablePromise<>();
+        SharedPromise<String> shared = origin.share();
+        Promise<String> keeper = shared.fork();
+        int count = 10_000;
+        CountDownLatch done = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            executor.execute(() -> {
+                shared.fork().cancel(true);
+                done.countDown();
+            });
+        }
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertFalse(origin.isDone());
+        Assert.assertEquals(1, shared.forks());
+        
+        List<Promise<String>> forks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            forks.add(shared.fork());
+        }
+        origin.onSuccess("value");
+        Assert.assertEquals("value", keeper.get(1, TimeUnit.SECONDS));
+        for (Promise<String> fork : forks) {
+            Assert.assertEquals("value", fork.get(1, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SingleFlightTests {
+
+    @Test
+    public void testConcurrentCallsAreCoalesced() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> origin = new CompletableFuture<>();
+        List<Promise<String>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(singleFlight.execute("key", k -> {
+                calls.incrementAndGet();
+                return origin;
+            }));
+        }
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(100, singleFlight.callers("key"));
+        origin.complete("value");
+        for (Promise<String> p : results) {
+            Assert.assertEquals("value", p.get(1, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals(0, singleFlight.inFlight());
+        singleFlight.execute("key", k -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("next");
+        });
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testSharedCallIsCancelledByLastCaller() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CompletableFuture<String> origin = new CompletableFuture<>();
+        Promise<String> a = singleFlight.execute("key", k -> origin);
+        Promise<String> b = singleFlight.execute("key", k -> origin);
+        a.cancel(true);
+        Assert.assertFalse("Shared call is cancelled while there are callers", origin.isCancelled());
+        Assert.assertFalse(b.isDone());
+        b.cancel(true);
+        Assert.assertTrue("Shared call is not cancelled", origin.isCancelled());
+        Assert.assertEquals(0, singleFlight.inFlight());
+
+        CompletableFuture<String> next = new CompletableFuture<>();
+        Promise<String> c = singleFlight.execute("key", k -> next);
+        next.complete("next");
+        Assert.assertEquals("next", c.join());
+    }
+
+    @Test
+    public void testRepeatedCancelReleasesCallerOnce() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CompletableFuture<String> origin = new CompletableFuture<>();
+        Promise<String> a = singleFlight.execute("key", k -> origin);
+        Promise<String> b = singleFlight.execute("key", k -> origin);
+        Promise<String> c = singleFlight.execute("key", k -> origin);
+        Assert.assertTrue(a.cancel(true));
+        Assert.assertTrue(a.cancel(true));
+        Assert.assertTrue(a.cancel(true));
+        Assert.assertFalse("Shared call is cancelled while there are callers", origin.isCancelled());
+        Assert.assertEquals(2, singleFlight.callers("key"));
+        b.cancel(true);
+        Assert.assertFalse("Shared call is cancelled while there are callers", origin.isCancelled());
+        origin.complete("value");
+        Assert.assertEquals("value", c.join());
+    }
+
+    @Test
+    public void testCancelledForksAreNotKeptByOrigin() throws Exception {
+        AtomicInteger callbacks = new AtomicInteger();
+        CompletableFutureWrapper<String> origin = new CompletableFutureWrapper<String>() {
+            @Override
+            public Promise<String> whenComplete(BiConsumer<? super String, ? super Throwable> action) {
+                callbacks.incrementAndGet();
+                return super.whenComplete(action);
+            }
+        };
+        RefCountedPromise<String> shared = new RefCountedPromise<>(origin);
+        Promise<String> live = shared.fork();
+        List<Promise<String>> cancelled = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Promise<String> fork = shared.fork();
+            fork.cancel(true);
+            cancelled.add(fork);
+        }
+        // Single callback regardless of the number of forks
+        Assert.assertEquals(1, callbacks.get());
+        Assert.assertEquals(1, shared.forks());
+        
+        origin.success("value");
+        Assert.assertEquals("value", live.get(1, TimeUnit.SECONDS));
+        for (Promise<String> fork : cancelled) {
+            Assert.assertTrue(fork.isCancelled());
+        }
+        Assert.assertEquals("value", shared.fork().get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testMultithreadedCoalescing() throws Exception {
+        SingleFlight<Integer, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<Integer> origin = new CompletableFuture<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Promise<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                Promise<Integer> p = singleFlight.execute(1, k -> {
+                    calls.incrementAndGet();
+                    return origin;
+                });
+                synchronized (results) {
+                    results.add(p);
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        origin.complete(42);
+        Assert.assertEquals(1, calls.get());
+        for (Promise<Integer> p : results) {
+            Assert.assertEquals(Integer.valueOf(42), p.get(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testFailureIsShared() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        Promise<String> p = singleFlight.execute("key", k -> {
+            throw new IllegalStateException();
+        });
+        Assert.assertTrue(p.isCompletedExceptionally());
+        Assert.assertEquals(0, singleFlight.inFlight());
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import net.tascalate.concurrent.core.ControlFlowExceptions;
+
+/**
+ * Timeout storm: every second 100k (the first argument) pending promises (each with a few dependent stages) time out via 
+ * {@link Promise#orTimeout(Duration)}, the timeout cancels the stages back to the origin. 
+ * Prints the achieved rate of timeouts and the time per timeout. The {@link ControlFlowExceptions stackless} mode 
+ * is read once per JVM, so compare runs with and without <code>-Dnet.tascalate.concurrent.stacklessExceptions=true</code>.
+ */
+public class TimeoutStormBenchmark {
+    public static void main(String[] argv) throws Exception {
+        int timeoutsPerSecond = argv.length > 0 ? Integer.parseInt(argv[0]) : 100_000;
+        int seconds = argv.length > 1 ? Integer.parseInt(argv[1]) : 3;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 2; round++) {
+                System.out.println(round == 0 ? "Warm-up" : "Measurement");
+                run(ControlFlowExceptions.isStackless() ? "Stackless" : "With stack traces", timeoutsPerSecond, seconds, executor);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private static void run(String name, int timeoutsPerSecond, int seconds, ExecutorService executor) throws Exception {
+        long startTime = System.nanoTime();
+        long busyNanos = 0;
+        for (int s = 0; s < seconds; s++) {
+            long secondStart = System.nanoTime();
+            CountDownLatch done = new CountDownLatch(timeoutsPerSecond);
+            for (int i = 0; i < timeoutsPerSecond; i++) {
+                new CompletablePromise<Object>()
+                    .dependent()
+                    .thenApply(v -> v, true)
+                    .thenApplyAsync(v -> v, executor, true)
+                    .orTimeout(Duration.ofMillis(1 + (i & 7)))
+                    .whenComplete((r, e) -> done.countDown());
+            }
+            done.await();
+            long elapsed = System.nanoTime() - secondStart;
+            busyNanos += elapsed;
+            long left = TimeUnit.SECONDS.toNanos(1) - elapsed;
+            if (left > 0) {
+                TimeUnit.NANOSECONDS.sleep(left);
+            }
+        }
+        long total = (long)timeoutsPerSecond * seconds;
+        System.out.println(String.format(
+            "%-20s %,10d of %,d timeouts/s achieved (busy %d%% of wall time)",
+            name,
+            total * TimeUnit.SECONDS.toNanos(1) / (System.nanoTime() - startTime),
+            timeoutsPerSecond,
+            busyNanos * 100 / (System.nanoTime() - startTime)
+        ));
+    }
+}
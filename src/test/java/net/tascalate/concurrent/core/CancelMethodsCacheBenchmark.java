@@ -0,0 +1,65 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Read throughput of {@link CancelMethodsCache} (backed by {@link ClassValue}) with 64 threads 
+ * when every lookup is a cache hit.
+ */
+public class CancelMethodsCacheBenchmark {
+    private static final int THREADS = 64;
+    private static final long DURATION_MILLIS = 2_000;
+    
+    private static final Class<?>[] KEYS = {
+        CompletableFuture.class, String.class, Integer.class, Long.class, Object.class, 
+        Thread.class, StringBuilder.class, Function.class
+    };
+    
+    public static void main(String[] argv) throws Exception {
+        for (int round = 0; round < 2; round++) {
+            System.out.println(round == 0 ? "Warm-up" : "Measurement");
+            run("CancelMethodsCache.cancellationOf", CancelMethodsCache::cancellationOf);
+        }
+    }
+    
+    private static void run(String name, Function<Class<?>, ?> fn) throws Exception {
+        LongAdder ops = new LongAdder();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+        Object[] sink = new Object[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            int idx = i;
+            new Thread(() -> {
+                long count = 0;
+                Object last = null;
+                while ((count & 1023) != 0 || System.currentTimeMillis() < deadline) {
+                    last = fn.apply(KEYS[(int)(count & 7)]);
+                    count++;
+                }
+                sink[idx] = last;
+                ops.add(count);
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        System.out.println(String.format("%-50s %,15d ops/s", name, ops.sum() * 1000 / DURATION_MILLIS));
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.core;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.tascalate.concurrent.CompletablePromise;
+import net.tascalate.concurrent.Promise;
+import net.tascalate.concurrent.decorators.CompletionStageDecorator;
+import net.tascalate.concurrent.decorators.CustomizablePromiseDecorator;
+import net.tascalate.concurrent.decorators.PromiseCustomizer;
+
+public class CancelMethodsCacheTests {
+
+    @Test
+    public void testFuturesAreCancelledDirectly() {
+        Promise<Object> promise = new CompletablePromise<>();
+        CustomizablePromiseDecorator<Object> decorated = new CustomizablePromiseDecorator<>(promise, new PromiseCustomizer() {});
+        Assert.assertSame(
+            CancelMethodsCache.cancellationOf(CompletableFuture.class), 
+            CancelMethodsCache.cancellationOf(decorated.getClass())
+        );
+        Assert.assertTrue(CancelMethodsCache.cancellationOf(decorated.getClass()).apply(decorated, true));
+        Assert.assertTrue(decorated.isCancelled());
+    }
+
+    @Test
+    public void testStageWithCompleteExceptionally() {
+        CompletableStage stage = new CompletableStage();
+        Assert.assertTrue(CancelMethodsCache.cancellationOf(CompletableStage.class).apply(stage, true));
+        Assert.assertTrue(stage.error instanceof CancellationException);
+    }
+
+    @Test
+    public void testNewCancellationExceptionByDefault() {
+        CancellationException a = CancelMethodsCache.cancellationException();
+        CancellationException b = CancelMethodsCache.cancellationException();
+        Assert.assertNotSame(a, b);
+        Assert.assertEquals(!ControlFlowExceptions.isStackless(), a.getStackTrace().length > 0);
+    }
+
+    public static class CompletableStage extends CompletionStageDecorator<Object> {
+        Throwable error;
+
+        public CompletableStage() {
+            super(new CompletableFuture<>());
+        }
+
+        public boolean completeExceptionally(Throwable error) {
+            this.error = error;
+            return true;
+        }
+    }
+}
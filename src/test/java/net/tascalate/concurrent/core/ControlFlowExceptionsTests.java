@@ -0,0 +1,118 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.core;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import net.tascalate.concurrent.CompletablePromise;
+import net.tascalate.concurrent.MultitargetException;
+import net.tascalate.concurrent.Promise;
+import net.tascalate.concurrent.Promises;
+import net.tascalate.concurrent.RetryException;
+import net.tascalate.concurrent.RetryPolicy;
+
+public class ControlFlowExceptionsTests {
+
+    @Test
+    public void testStackTracesByDefault() {
+        Assume.assumeFalse("Stackless mode is enabled", ControlFlowExceptions.isStackless());
+        Assert.assertNotSame(ControlFlowExceptions.cancellation(), ControlFlowExceptions.cancellation());
+        Assert.assertTrue(ControlFlowExceptions.cancellation().getStackTrace().length > 0);
+        Assert.assertTrue(ControlFlowExceptions.timeout("t").getStackTrace().length > 0);
+        Assert.assertTrue(ControlFlowExceptions.completion(new Exception()).getStackTrace().length > 0);
+    }
+
+    @Test
+    public void testStacklessExceptions() {
+        CancellationException cancellation = new ControlFlowExceptions.StacklessCancellationException();
+        Assert.assertEquals(0, cancellation.getStackTrace().length);
+        
+        TimeoutException timeout = new ControlFlowExceptions.StacklessTimeoutException("t");
+        Assert.assertEquals("t", timeout.getMessage());
+        Assert.assertEquals(0, timeout.getStackTrace().length);
+        
+        Exception cause = new Exception();
+        CompletionException completion = new ControlFlowExceptions.StacklessCompletionException(cause);
+        Assert.assertSame(cause, completion.getCause());
+        Assert.assertEquals(0, completion.getStackTrace().length);
+    }
+
+    @Test
+    public void testCancellationsAreNotShared() {
+        // Suppressed exceptions and causes added by one consumer must not be visible to others
+        CancellationException first = ControlFlowExceptions.cancellation();
+        first.addSuppressed(new IllegalStateException());
+        first.initCause(new IllegalArgumentException());
+        CancellationException second = ControlFlowExceptions.cancellation();
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(0, second.getSuppressed().length);
+        Assert.assertNull(second.getCause());
+    }
+
+    /**
+     * Runs only with <code>-Dnet.tascalate.concurrent.stacklessExceptions=true</code> since the mode 
+     * is read once per JVM, see <code>stackless-exceptions</code> execution of the surefire plugin
+     */
+    @Test
+    public void testStacklessTimeoutsAndAggregation() throws InterruptedException {
+        Assume.assumeTrue("Stackless mode is disabled", ControlFlowExceptions.isStackless());
+        Assert.assertEquals(0, ControlFlowExceptions.cancellation().getStackTrace().length);
+        
+        Promise<Object> timedOut = new CompletablePromise<>().orTimeout(Duration.ofMillis(1));
+        Throwable timeout = failureOf(timedOut);
+        Assert.assertTrue(timeout instanceof TimeoutException);
+        Assert.assertEquals(0, timeout.getStackTrace().length);
+        
+        Exception first = new Exception("first");
+        Exception second = new Exception("second");
+        Throwable aggregated = failureOf(Promises.all(Promises.failure(first), Promises.failure(second)));
+        Assert.assertTrue(aggregated instanceof MultitargetException);
+        Assert.assertEquals(0, aggregated.getStackTrace().length);
+        Assert.assertEquals(2, ((MultitargetException)aggregated).getExceptions().size());
+        
+        RetryPolicy<Object> policy = RetryPolicy.DEFAULT.withMaxRetries(1).withoutBackoff();
+        Throwable retry = failureOf(Promises.retry((Callable<Object>)() -> {
+            throw new IllegalStateException();
+        }, Runnable::run, policy));
+        Assert.assertTrue(retry instanceof RetryException);
+        Assert.assertEquals(0, retry.getStackTrace().length);
+    }
+
+    @Test
+    public void testCancellationHasSameMessageInBothModes() {
+        Assert.assertEquals(new CancellationException().getMessage(), ControlFlowExceptions.cancellation().getMessage());
+        Assert.assertEquals(new CancellationException().getMessage(), 
+                            new ControlFlowExceptions.StacklessCancellationException().getMessage());
+    }
+
+    private static Throwable failureOf(Promise<?> promise) throws InterruptedException {
+        try {
+            promise.get();
+            throw new AssertionError("Failure expected");
+        } catch (ExecutionException ex) {
+            return ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.locks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.tascalate.concurrent.Promise;
+import net.tascalate.concurrent.Promises;
+
+public class AdaptiveAsyncLimiterTests {
+
+    @Test
+    public void testAimdIncreasesAndDecreases() {
+        AdaptiveAsyncLimiter limiter = new AdaptiveAsyncLimiter(AdaptiveLimit.aimd(2, 1, 10, 0.5, Duration.ofSeconds(1)));
+        Assert.assertEquals(2, limiter.getLimit());
+        AdaptiveAsyncLimiter.Token t1 = limiter.tryAcquire().get();
+        AdaptiveAsyncLimiter.Token t2 = limiter.tryAcquire().get();
+        Assert.assertFalse(limiter.tryAcquire().isPresent());
+        t1.release();
+        t2.release();
+        Assert.assertEquals(4, limiter.getLimit());
+        Assert.assertEquals(4, limiter.availablePermits());
+        
+        limiter.tryAcquire().get().releaseOnFailure();
+        Assert.assertEquals(2, limiter.getLimit());
+        Assert.assertEquals(2, limiter.availablePermits());
+    }
+
+    @Test
+    public void testShrinkWithPermitsInFlight() {
+        AdaptiveAsyncLimiter limiter = new AdaptiveAsyncLimiter(AdaptiveLimit.aimd(4, 1, 10, 0.5, Duration.ofSeconds(1)));
+        List<AdaptiveAsyncLimiter.Token> tokens = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tokens.add(limiter.tryAcquire().get());
+        }
+        tokens.get(0).releaseOnFailure();
+        Assert.assertEquals(2, limiter.getLimit());
+        // 3 permits are still in flight while the limit is 2
+        Assert.assertEquals(-1, limiter.availablePermits());
+        Promise<AdaptiveAsyncLimiter.Token> waiter = limiter.acquire();
+        tokens.get(1).releaseIgnored();
+        Assert.assertFalse(waiter.isDone());
+        tokens.get(2).releaseIgnored();
+        Assert.assertTrue(waiter.isDone());
+    }
+
+    @Test
+    public void testWaitersResumeOutsideOfLimiterLock() {
+        AdaptiveLimit growing = new AdaptiveLimit() {
+            @Override
+            public int initialLimit() {
+                return 1;
+            }
+
+            @Override
+            public int update(int currentLimit, long rttNanos, int inFlight, boolean dropped) {
+                return currentLimit + 1;
+            }
+        };
+        AdaptiveAsyncLimiter limiter = new AdaptiveAsyncLimiter(growing);
+        AdaptiveAsyncLimiter.Token token = limiter.tryAcquire().get();
+        List<Boolean> lockHeld = new ArrayList<>();
+        limiter.acquire().thenAccept(t -> lockHeld.add(Thread.holdsLock(growing)));
+        limiter.acquire().thenAccept(t -> lockHeld.add(Thread.holdsLock(growing)));
+        token.release();
+        Assert.assertEquals(2, limiter.getLimit());
+        Assert.assertEquals(2, lockHeld.size());
+        Assert.assertFalse("Waiter is resumed under the limiter lock", lockHeld.get(0));
+        Assert.assertFalse("Waiter is resumed under the limiter lock", lockHeld.get(1));
+    }
+
+    @Test
+    public void testExecuteQueuesOverLimit() throws Exception {
+        AdaptiveAsyncLimiter limiter = new AdaptiveAsyncLimiter(AdaptiveLimit.vegas(1, 10));
+        CompletableFuture<String> first = new CompletableFuture<>();
+        Promise<String> r1 = limiter.execute(() -> first);
+        Promise<String> r2 = limiter.execute(() -> Promises.success("second"));
+        Assert.assertFalse(r2.isDone());
+        first.complete("first");
+        Assert.assertEquals("first", r1.get(1, TimeUnit.SECONDS));
+        Assert.assertEquals("second", r2.get(1, TimeUnit.SECONDS));
+        Assert.assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testGradientReactsToLatency() {
+        AdaptiveLimit gradient = AdaptiveLimit.gradient(20, 1, 100, 1.0);
+        int limit = 20;
+        for (int i = 0; i < 50; i++) {
+            limit = gradient.update(limit, 1_000_000, limit, false);
+        }
+        int stable = limit;
+        for (int i = 0; i < 50; i++) {
+            limit = gradient.update(limit, 10_000_000, limit, false);
+        }
+        Assert.assertTrue("Limit is not reduced: " + stable + " -> " + limit, limit < stable);
+    }
+
+    @Test
+    public void testFixedSemaphoreKeepsStrictReleaseCheck() {
+        DefaultAsyncSemaphore semaphore = new DefaultAsyncSemaphore(2, false);
+        Assert.assertEquals(2, semaphore.drainPermits());
+        try {
+            semaphore.release(-1);
+            Assert.fail("Negative number of available permits is accepted");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+        try {
+            semaphore.resize(4);
+            Assert.fail("Fixed-size semaphore is resized");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+    }
+}
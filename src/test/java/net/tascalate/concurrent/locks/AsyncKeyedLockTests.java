@@ -0,0 +1,115 @@
+/**
+ * Copyright 2015-2025 Valery Silaev (http://vsilaev.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tascalate.concurrent.locks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.tascalate.concurrent.Promise;
+import net.tascalate.concurrent.Promises;
+import net.tascalate.concurrent.TaskExecutorService;
+import net.tascalate.concurrent.TaskExecutors;
+
+public class AsyncKeyedLockTests {
+
+    private TaskExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = TaskExecutors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSameKeyIsSerialized() {
+        DefaultAsyncKeyedLock<String> locks = new DefaultAsyncKeyedLock<>();
+        Promise<AsyncLock.Token> first = locks.acquire("a");
+        Promise<AsyncLock.Token> second = locks.acquire("a");
+        Promise<AsyncLock.Token> other = locks.acquire("b");
+        Assert.assertTrue(first.isDone());
+        Assert.assertFalse(second.isDone());
+        Assert.assertTrue(other.isDone());
+        Assert.assertFalse(locks.tryAcquire("a").isPresent());
+        first.join().release();
+        Assert.assertTrue(second.isDone());
+        second.join().release();
+        other.join().release();
+        Assert.assertEquals(0, locks.activeKeys());
+    }
+
+    @Test
+    public void testReleaseIsIdempotent() {
+        DefaultAsyncKeyedLock<String> locks = new DefaultAsyncKeyedLock<>();
+        AsyncLock.Token token = locks.tryAcquire("a").get();
+        Promise<AsyncLock.Token> waiter = locks.acquire("a");
+        token.release();
+        token.release();
+        Assert.assertTrue(waiter.isDone());
+        Assert.assertEquals(1, locks.activeKeys());
+        waiter.join().release();
+        Assert.assertEquals(0, locks.activeKeys());
+    }
+
+    @Test
+    public void testCancelledWaiterIsRemoved() {
+        DefaultAsyncKeyedLock<String> locks = new DefaultAsyncKeyedLock<>();
+        Promise<AsyncLock.Token> first = locks.acquire("a");
+        Promise<AsyncLock.Token> cancelled = locks.acquire("a");
+        Promise<AsyncLock.Token> third = locks.acquire("a");
+        cancelled.cancel(true);
+        first.join().release();
+        Assert.assertTrue(third.isDone());
+        third.join().release();
+        Assert.assertEquals(0, locks.activeKeys());
+    }
+
+    @Test
+    public void testMutualExclusionUnderLoad() throws Exception {
+        AsyncKeyedLock<Integer> locks = AsyncKeyedLock.create();
+        int[] counters = new int[4];
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicInteger[] active = {new AtomicInteger(), new AtomicInteger(), new AtomicInteger(), new AtomicInteger()};
+        List<Promise<?>> all = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 400; i++) {
+            int key = i % 4;
+            all.add(locks.acquire(key).dependent().thenApplyAsync(token -> {
+                maxConcurrent.accumulateAndGet(active[key].incrementAndGet(), Math::max);
+                counters[key]++;
+                active[key].decrementAndGet();
+                token.release();
+                return null;
+            }, executor, true));
+        }
+        Promises.all(all).get(10, TimeUnit.SECONDS);
+        for (int c : counters) {
+            Assert.assertEquals(100, c);
+        }
+        Assert.assertEquals(1, maxConcurrent.get());
+        Assert.assertEquals(0, ((DefaultAsyncKeyedLock<Integer>)locks).activeKeys());
+    }
+}